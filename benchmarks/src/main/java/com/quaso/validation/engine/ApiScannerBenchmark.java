@@ -0,0 +1,49 @@
+package com.quaso.validation.engine;
+
+import com.quaso.validation.engine.BenchmarkModel.BenchmarkRequest;
+import com.quaso.validation.engine.config.ApiScannerConfiguration;
+import com.quaso.validation.engine.config.properties.ValidationProperties;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Start up scanning of {@link ApiScannerConfiguration}, for the whole ValidationApi and for a single request type.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ApiScannerBenchmark {
+
+    private ValidationProperties validationProperties;
+
+    @Setup
+    public void setUp() {
+        validationProperties = new BenchmarkFixture.StubValidationProperties(false, "com.quaso");
+    }
+
+    @Benchmark
+    public ApiScannerConfiguration scanValidationApi() {
+        final ApiScannerConfiguration result = new ApiScannerConfiguration(validationProperties);
+        result.scanValidationApi();
+        return result;
+    }
+
+    @Benchmark
+    public ApiScannerConfiguration scanRequestType() {
+        final ApiScannerConfiguration result = new ApiScannerConfiguration(validationProperties);
+        result.scanRequestType(BenchmarkRequest.class);
+        return result;
+    }
+}
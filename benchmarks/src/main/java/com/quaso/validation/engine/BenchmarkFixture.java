@@ -0,0 +1,224 @@
+package com.quaso.validation.engine;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import com.quaso.validation.engine.BenchmarkModel.BenchmarkRequest;
+import com.quaso.validation.engine.BenchmarkModel.LineItem;
+import com.quaso.validation.engine.BenchmarkModel.Node;
+import com.quaso.validation.engine.config.ApiScannerConfiguration;
+import com.quaso.validation.engine.config.ClassConfigurationCache;
+import com.quaso.validation.engine.config.FieldDetails;
+import com.quaso.validation.engine.config.ValidationConfigService;
+import com.quaso.validation.engine.config.ValidationContext;
+import com.quaso.validation.engine.config.model.ClassConfiguration;
+import com.quaso.validation.engine.config.model.FieldConfiguration;
+import com.quaso.validation.engine.config.model.RuleConfiguration;
+import com.quaso.validation.engine.config.properties.ValidationEngineProperties;
+import com.quaso.validation.engine.config.properties.ValidationProperties;
+import com.quaso.validation.exception.NoConfigException;
+import com.quaso.validation.utils.ReflectionUtils;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.BiPredicate;
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.http.HttpMethod;
+
+/**
+ * Validation engine wired with a stubbed configuration service. Rules, their error and the properties are plain
+ * hand-written stubs, so every rule evaluation costs only its predicate and the benchmarks measure the engine around
+ * the rules. The configuration service stays a Mockito mock, it is called only when configuration is loaded or a plan
+ * compiled.
+ */
+final class BenchmarkFixture {
+
+    static final String ALLIANCE = "ALLIANCE";
+    static final String PARTNER = "PARTNER";
+
+    private static final ValidationErrorResponse ERROR = new StubErrorResponse();
+
+    final ValidationProperties validationProperties;
+    final ValidationEngineProperties validationEngineProperties = new ValidationEngineProperties();
+    final ValidationConfigService validationConfigService = mock(ValidationConfigService.class);
+    final ApiScannerConfiguration apiScannerConfiguration;
+    final ClassConfigurationCache classConfigurationCache;
+    final ValidationMetrics validationMetrics;
+    final ValidationPlanCache validationPlanCache;
+    final ValidationEngine validationEngine;
+
+    /**
+     * @param crossFieldInput input of the line item class rule comparing currencies, e.g.
+     * {@code parent.requestCurrency}, empty for no cross field rule
+     * @param metrics publish metrics to a {@link SimpleMeterRegistry}
+     */
+    BenchmarkFixture(final boolean failFast, final String crossFieldInput, final boolean metrics) {
+        validationProperties = new StubValidationProperties(failFast, BenchmarkModel.class.getPackage().getName());
+
+        final ClassConfiguration requestConfiguration = classConfiguration(Collections.emptyList(),
+            field("id", rule("id not empty", null, (value, context) -> StringUtils.isNotEmpty((String) value))));
+        final ClassConfiguration lineItemConfiguration = classConfiguration(
+            StringUtils.isEmpty(crossFieldInput) ? Collections.emptyList()
+                : Collections.singletonList(rule("currency matches", crossFieldInput,
+                    (value, context) -> ((LineItem) value).getCurrency()
+                        .equals(ReflectionUtils.getFieldValue(crossFieldInput, context.getHierarchyStack())))),
+            field("sku", rule("sku not null", null, (value, context) -> value != null),
+                rule("sku format", null, (value, context) -> value == null || ((String) value).startsWith("SKU-"))),
+            field("quantity", rule("quantity positive", null, (value, context) -> (Integer) value > 0)));
+        final ClassConfiguration nodeConfiguration = classConfiguration(Collections.emptyList(),
+            field("value", rule("value not null", null, (value, context) -> value != null)));
+        final List<ClassConfiguration> classConfigurationList = Arrays
+            .asList(requestConfiguration, lineItemConfiguration, nodeConfiguration);
+
+        when(validationConfigService.findClassConfigurationList(anyString(), any(), anyString(), anyString()))
+            .thenReturn(classConfigurationList);
+        when(validationConfigService.findClassConfiguration(any(Class.class), anyList()))
+            .thenReturn(requestConfiguration);
+        when(validationConfigService.findClassConfiguration(any(FieldDetails.class), anyList())).thenAnswer(
+            invocation -> {
+                final Class<?> type = invocation.<FieldDetails>getArgument(0).getFieldGenericClass();
+                if (type == LineItem.class) {
+                    return lineItemConfiguration;
+                } else if (type == Node.class) {
+                    return nodeConfiguration;
+                }
+                throw new NoConfigException();
+            });
+
+        apiScannerConfiguration = new ApiScannerConfiguration(validationProperties);
+        apiScannerConfiguration.scanRequestType(BenchmarkRequest.class);
+        classConfigurationCache = new ClassConfigurationCache(validationConfigService, validationEngineProperties);
+        validationMetrics = new ValidationMetrics(
+            metrics ? Optional.of(new SimpleMeterRegistry()) : Optional.empty(), validationEngineProperties,
+            classConfigurationCache);
+        validationPlanCache = new ValidationPlanCache(validationConfigService, classConfigurationCache,
+            apiScannerConfiguration, validationEngineProperties, validationMetrics);
+        validationEngine = new ValidationEngine(validationProperties, apiScannerConfiguration, validationPlanCache,
+            new ParallelValidationExecutor(validationEngineProperties),
+            new ValidationTracing(validationEngineProperties), validationMetrics,
+            new RuleMemoization(validationEngineProperties, validationMetrics),
+            new AsyncValidationExecutor(validationEngineProperties), validationEngineProperties);
+    }
+
+    List<ValidationErrorResponse> validate(final Object request) {
+        return validationEngine.validate(request, HttpMethod.POST, ALLIANCE, PARTNER);
+    }
+
+    private static ClassConfiguration classConfiguration(final List<RuleConfiguration> classRules,
+        final FieldConfiguration... fields) {
+        final List<FieldConfiguration> fieldList = Arrays.asList(fields);
+        return new ClassConfiguration() {
+            @Override
+            public List<RuleConfiguration> getClassRuleConfigurationList() {
+                return classRules;
+            }
+
+            @Override
+            public List<FieldConfiguration> getFieldConfigurationList() {
+                return fieldList;
+            }
+        };
+    }
+
+    private static FieldConfiguration field(final String name, final RuleConfiguration... rules) {
+        final List<RuleConfiguration> ruleList = Arrays.asList(rules);
+        return new FieldConfiguration() {
+            @Override
+            public String getName() {
+                return name;
+            }
+
+            @Override
+            public List<RuleConfiguration> getRuleConfigurationList() {
+                return ruleList;
+            }
+        };
+    }
+
+    private static RuleConfiguration rule(final String name, final String input,
+        final BiPredicate<Object, ValidationContext> valid) {
+        return new StubRule(name, input, valid);
+    }
+
+    /**
+     * Properties read by the engine and the scanner.
+     */
+    static final class StubValidationProperties extends ValidationProperties {
+
+        private final boolean failFast;
+        private final List<String> packagesToScan;
+
+        StubValidationProperties(final boolean failFast, final String packageToScan) {
+            this.failFast = failFast;
+            this.packagesToScan = Collections.singletonList(packageToScan);
+        }
+
+        @Override
+        public boolean isFailFast() {
+            return failFast;
+        }
+
+        @Override
+        public List<String> getPackagesToScan() {
+            return packagesToScan;
+        }
+    }
+
+    private static final class StubRule extends RuleConfiguration {
+
+        private final String name;
+        private final String input;
+        private final BiPredicate<Object, ValidationContext> valid;
+
+        StubRule(final String name, final String input, final BiPredicate<Object, ValidationContext> valid) {
+            this.name = name;
+            this.input = input;
+            this.valid = valid;
+        }
+
+        @Override
+        public String getLogString() {
+            return name;
+        }
+
+        @Override
+        public String getInput() {
+            return input;
+        }
+
+        @Override
+        public Optional<ValidationErrorResponse> validate(final Object value,
+            final ValidationContext validationContext) {
+            return valid.test(value, validationContext) ? Optional.empty() : Optional.of(ERROR);
+        }
+    }
+
+    /**
+     * Error of every failed rule. Its code is any but {@link ValidationErrorCode#UnexpectedError}, which would end
+     * the validation at the first failure.
+     */
+    private static final class StubErrorResponse extends ValidationErrorResponse {
+
+        private static final ValidationErrorCode CODE = Arrays.stream(ValidationErrorCode.values())
+            .filter(code -> code != ValidationErrorCode.UnexpectedError)
+            .findFirst()
+            .orElseThrow(IllegalStateException::new);
+
+        private final ValidationError error = new ValidationError() {
+            @Override
+            public ValidationErrorCode getCode() {
+                return CODE;
+            }
+        };
+
+        @Override
+        public ValidationError getError() {
+            return error;
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package com.quaso.validation.engine;
+
+import java.util.ArrayList;
+import java.util.List;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Synthetic request graph used by benchmarks: a request with a wide list of line items and a deep chain of nodes.
+ */
+final class BenchmarkModel {
+
+    static final String CURRENCY = "EUR";
+
+    private BenchmarkModel() {
+    }
+
+    /**
+     * @param invalidEvery every n-th line item and node is invalid, 0 for a valid request
+     */
+    static BenchmarkRequest createRequest(final int listSize, final int depth, final int invalidEvery) {
+        final List<LineItem> items = new ArrayList<>(listSize);
+        for (int i = 1; i <= listSize; i++) {
+            final boolean invalid = invalidEvery > 0 && i % invalidEvery == 0;
+            items.add(new LineItem(invalid ? null : "SKU-" + i, invalid ? "USD" : CURRENCY, i));
+        }
+        Node node = null;
+        for (int i = depth; i >= 1; i--) {
+            final boolean invalid = invalidEvery > 0 && i % invalidEvery == 0;
+            node = new Node(invalid ? null : "node-" + i, node);
+        }
+        return new BenchmarkRequest("request", CURRENCY, items, node);
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class BenchmarkRequest {
+
+        private String id;
+        // named differently from the currency of line items, so 'any.' inputs of line items search their ancestors
+        private String requestCurrency;
+        private List<LineItem> items;
+        private Node node;
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class LineItem {
+
+        private String sku;
+        private String currency;
+        private Integer quantity;
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Node {
+
+        private String value;
+        private Node child;
+    }
+}
@@ -0,0 +1,76 @@
+package com.quaso.validation.engine;
+
+import com.quaso.validation.engine.BenchmarkModel.BenchmarkRequest;
+import com.quaso.validation.engine.config.ClassDetails;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.HttpMethod;
+
+/**
+ * Resolution of class configuration and validation plan for a request, cached across {@code tenants} partners and
+ * compiled from scratch.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ConfigResolutionBenchmark {
+
+    @Param({"1", "1000"})
+    private int tenants;
+
+    private BenchmarkFixture fixture;
+    private ClassDetails classDetails;
+    private String[] partners;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        fixture = new BenchmarkFixture(false, "", false);
+        classDetails = fixture.apiScannerConfiguration.findConfigByRequestType(BenchmarkRequest.class);
+        partners = new String[tenants];
+        for (int i = 0; i < tenants; i++) {
+            partners[i] = BenchmarkFixture.PARTNER + i;
+            fixture.validationPlanCache.findPlan(BenchmarkRequest.class, classDetails, HttpMethod.POST,
+                BenchmarkFixture.ALLIANCE, partners[i]);
+        }
+    }
+
+    @Benchmark
+    public Object findClassConfigurationList() {
+        return fixture.classConfigurationCache.findClassConfigurationList(BenchmarkRequest.class.getSimpleName(),
+            HttpMethod.POST, BenchmarkFixture.ALLIANCE, nextPartner());
+    }
+
+    @Benchmark
+    public ValidationPlan findCachedPlan() {
+        return fixture.validationPlanCache.findPlan(BenchmarkRequest.class, classDetails, HttpMethod.POST,
+            BenchmarkFixture.ALLIANCE, nextPartner());
+    }
+
+    @Benchmark
+    public ValidationPlan compilePlan() {
+        // new plan cache, so the plan is compiled from the cached class configuration list
+        return new ValidationPlanCache(fixture.validationConfigService, fixture.classConfigurationCache,
+            fixture.apiScannerConfiguration, fixture.validationEngineProperties, fixture.validationMetrics)
+            .findPlan(BenchmarkRequest.class, classDetails, HttpMethod.POST, BenchmarkFixture.ALLIANCE,
+                nextPartner());
+    }
+
+    private String nextPartner() {
+        next = next + 1 == partners.length ? 0 : next + 1;
+        return partners[next];
+    }
+}
@@ -0,0 +1,66 @@
+package com.quaso.validation.engine;
+
+import com.quaso.validation.engine.BenchmarkModel.BenchmarkRequest;
+import com.quaso.validation.engine.BenchmarkModel.LineItem;
+import com.quaso.validation.utils.ReflectionUtils;
+import java.lang.reflect.Field;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Field access of {@link ReflectionUtils}: by field, by field name and by hierarchy expression evaluated against a
+ * stack of request, node and line item.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ReflectionUtilsBenchmark {
+
+    @Param({"sku", "parent.value", "parent.parent.id", "any.id", "top.requestCurrency"})
+    private String expression;
+
+    private LineItem lineItem;
+    private Field skuField;
+    private Deque<Object> hierarchy;
+
+    @Setup
+    public void setUp() throws NoSuchFieldException {
+        final BenchmarkRequest request = BenchmarkModel.createRequest(1, 1, 0);
+        lineItem = request.getItems().get(0);
+        skuField = LineItem.class.getDeclaredField("sku");
+        hierarchy = new ArrayDeque<>();
+        hierarchy.push(request);
+        hierarchy.push(request.getNode());
+        hierarchy.push(lineItem);
+    }
+
+    @Benchmark
+    public Object getFieldValueByField() {
+        return ReflectionUtils.getFieldValue(lineItem, skuField);
+    }
+
+    @Benchmark
+    public Object getFieldValueByName() {
+        return ReflectionUtils.getFieldValue(lineItem, "sku");
+    }
+
+    @Benchmark
+    public Object getFieldValueByExpression() {
+        return ReflectionUtils.getFieldValue(expression, hierarchy, true);
+    }
+}
@@ -0,0 +1,64 @@
+package com.quaso.validation.engine;
+
+import com.quaso.validation.engine.BenchmarkModel.BenchmarkRequest;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * {@link ValidationEngine#validate} of a request with a list of {@code listSize} line items and a chain of
+ * {@code depth} nested nodes, in fail fast and collect all mode.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ValidationEngineBenchmark {
+
+    @Param({"10", "1000", "10000"})
+    private int listSize;
+
+    @Param({"1", "8", "32"})
+    private int depth;
+
+    @Param({"false", "true"})
+    private boolean failFast;
+
+    /**
+     * Every n-th line item and node is invalid, 0 for valid request.
+     */
+    @Param({"0", "10"})
+    private int invalidEvery;
+
+    @Param({"", "parent.requestCurrency", "any.requestCurrency"})
+    private String crossFieldInput;
+
+    @Param({"false", "true"})
+    private boolean metrics;
+
+    private BenchmarkFixture fixture;
+    private BenchmarkRequest request;
+
+    @Setup
+    public void setUp() {
+        fixture = new BenchmarkFixture(failFast, crossFieldInput, metrics);
+        request = BenchmarkModel.createRequest(listSize, depth, invalidEvery);
+    }
+
+    @Benchmark
+    public List<ValidationErrorResponse> validate() {
+        return fixture.validate(request);
+    }
+}
@@ -0,0 +1,252 @@
+package com.quaso.validation.processor;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.annotation.processing.SupportedOptions;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import javax.tools.Diagnostic.Kind;
+import javax.tools.FileObject;
+import javax.tools.StandardLocation;
+
+/**
+ * Scans {@code ValidationApi} at compile time the same way as {@code ApiScannerConfiguration} does at runtime and
+ * generates {@code GeneratedValidationApiIndex}, so the application does not scan classes when it starts. Packages to
+ * scan are passed as {@code -Avalidation.packagesToScan=com.quaso,...} and have to match
+ * {@code validation.packages-to-scan} of the application, otherwise the index is ignored. Reflection configuration
+ * of scanned classes is generated for GraalVM native image as well.
+ */
+@SupportedAnnotationTypes("*")
+@SupportedOptions(ValidationApiIndexProcessor.PACKAGES_TO_SCAN)
+public class ValidationApiIndexProcessor extends AbstractProcessor {
+
+    static final String PACKAGES_TO_SCAN = "validation.packagesToScan";
+
+    private static final String INDEX_PACKAGE = "com.quaso.validation.engine.config";
+    private static final String INDEX_NAME = "GeneratedValidationApiIndex";
+    private static final String VALIDATION_API = INDEX_PACKAGE + ".ValidationApi";
+    private static final String REQUEST_MAPPING = "org.springframework.web.bind.annotation.RequestMapping";
+    private static final String REQUEST_BODY = "org.springframework.web.bind.annotation.RequestBody";
+    private static final String REFLECT_CONFIG = "META-INF/native-image/com.quaso.validation/api-validation/"
+        + "reflect-config.json";
+
+    private boolean processed;
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(final Set<? extends TypeElement> annotations, final RoundEnvironment roundEnv) {
+        if (processed) {
+            return false;
+        }
+        processed = true;
+        final TypeElement validationApi = processingEnv.getElementUtils().getTypeElement(VALIDATION_API);
+        if (validationApi == null) {
+            processingEnv.getMessager().printMessage(Kind.WARNING,
+                VALIDATION_API + " not found, ValidationApi index is not generated");
+            return false;
+        }
+        final String packagesOption = processingEnv.getOptions().get(PACKAGES_TO_SCAN);
+        if (packagesOption == null || packagesOption.trim().isEmpty()) {
+            processingEnv.getMessager().printMessage(Kind.WARNING,
+                "-A" + PACKAGES_TO_SCAN + " not set, ValidationApi index is not generated");
+            return false;
+        }
+        final List<String> packagesToScan = Arrays.stream(packagesOption.split(","))
+            .map(String::trim)
+            .filter(packageName -> !packageName.isEmpty())
+            .collect(Collectors.toList());
+
+        final Map<TypeElement, ScannedClass> scannedClasses = new LinkedHashMap<>();
+        final List<TypeElement> requestTypes = new ArrayList<>();
+        for (final ExecutableElement method : ElementFilter.methodsIn(validationApi.getEnclosedElements())) {
+            if (findAnnotation(method, REQUEST_MAPPING) == null) {
+                continue;
+            }
+            final VariableElement requestBody = method.getParameters().stream()
+                .filter(parameter -> findAnnotation(parameter, REQUEST_BODY) != null)
+                .findFirst().orElse(null);
+            if (requestBody == null) {
+                processingEnv.getMessager().printMessage(Kind.ERROR,
+                    "Method " + method.getSimpleName() + " does not have parameter with RequestBody", method);
+                return false;
+            }
+            final TypeElement requestType = asTypeElement(requestBody.asType());
+            if (requestType != null) {
+                scanClass(requestType, packagesToScan, scannedClasses);
+                requestTypes.add(requestType);
+            }
+        }
+        try {
+            writeIndex(packagesToScan, requestTypes, scannedClasses);
+            writeReflectConfig(scannedClasses);
+        } catch (final IOException ex) {
+            processingEnv.getMessager().printMessage(Kind.ERROR, "Cannot write ValidationApi index: " + ex);
+        }
+        return false;
+    }
+
+    private ScannedClass scanClass(final TypeElement type, final List<String> packagesToScan,
+        final Map<TypeElement, ScannedClass> scannedClasses) {
+        final ScannedClass result = new ScannedClass(scannedClasses.size());
+        scannedClasses.put(type, result);
+        for (final VariableElement field : ElementFilter.fieldsIn(type.getEnclosedElements())) {
+            final TypeElement fieldClass = asTypeElement(getFieldGenericType(field.asType()));
+            if (fieldClass == null || !isPackageToScan(fieldClass, packagesToScan)) {
+                continue;
+            }
+            ScannedClass target = scannedClasses.get(fieldClass);
+            if (target == null) {
+                target = scanClass(fieldClass, packagesToScan, scannedClasses);
+            }
+            result.fields.put(field.getSimpleName().toString(), target);
+        }
+        return result;
+    }
+
+    /**
+     * Element type of lists, type itself otherwise. Same as {@code FieldDetails.getFieldGenericClass()}.
+     */
+    private TypeMirror getFieldGenericType(final TypeMirror type) {
+        final TypeMirror list = processingEnv.getTypeUtils()
+            .erasure(processingEnv.getElementUtils().getTypeElement(List.class.getName()).asType());
+        if (type.getKind() == TypeKind.DECLARED
+            && processingEnv.getTypeUtils().isAssignable(processingEnv.getTypeUtils().erasure(type), list)) {
+            final List<? extends TypeMirror> typeArguments = ((DeclaredType) type).getTypeArguments();
+            return typeArguments.isEmpty() ? null : typeArguments.get(0);
+        }
+        return type;
+    }
+
+    private boolean isPackageToScan(final TypeElement type, final List<String> packagesToScan) {
+        final String packageName = processingEnv.getElementUtils().getPackageOf(type).getQualifiedName().toString();
+        return packagesToScan.stream().anyMatch(packageName::startsWith);
+    }
+
+    private void writeIndex(final List<String> packagesToScan, final List<TypeElement> requestTypes,
+        final Map<TypeElement, ScannedClass> scannedClasses) throws IOException {
+        final StringBuilder source = new StringBuilder()
+            .append("package ").append(INDEX_PACKAGE).append(";\n\n")
+            .append("import java.util.Arrays;\n")
+            .append("import java.util.HashMap;\n")
+            .append("import java.util.List;\n")
+            .append("import java.util.Map;\n")
+            .append("import javax.annotation.processing.Generated;\n\n")
+            .append("@Generated(\"").append(getClass().getName()).append("\")\n")
+            .append("public final class ").append(INDEX_NAME).append(" implements ValidationApiIndex {\n\n")
+            .append("    @Override\n")
+            .append("    public List<String> getPackagesToScan() {\n")
+            .append("        return Arrays.asList(")
+            .append(packagesToScan.stream().map(packageName -> '"' + packageName + '"')
+                .collect(Collectors.joining(", ")))
+            .append(");\n")
+            .append("    }\n\n")
+            .append("    @Override\n")
+            .append("    public Map<Class<?>, ClassDetails> getRequestTypes() throws ReflectiveOperationException {\n");
+        for (final Map.Entry<TypeElement, ScannedClass> entry : scannedClasses.entrySet()) {
+            final int index = entry.getValue().index;
+            source.append("        final Class<?> type").append(index).append(" = ")
+                .append(classLiteral(entry.getKey())).append(";\n")
+                .append("        final ClassDetails class").append(index).append(" = new ClassDetails();\n");
+        }
+        for (final ScannedClass scannedClass : scannedClasses.values()) {
+            for (final Map.Entry<String, ScannedClass> field : scannedClass.fields.entrySet()) {
+                source.append("        class").append(scannedClass.index)
+                    .append(".registerField(ValidationApiIndex.field(type").append(scannedClass.index)
+                    .append(", \"").append(field.getKey()).append("\"), class").append(field.getValue().index)
+                    .append(");\n");
+            }
+        }
+        source.append("        final Map<Class<?>, ClassDetails> result = new HashMap<>();\n");
+        for (final TypeElement requestType : requestTypes) {
+            final int index = scannedClasses.get(requestType).index;
+            source.append("        result.put(type").append(index).append(", class").append(index).append(");\n");
+        }
+        source.append("        return result;\n")
+            .append("    }\n")
+            .append("}\n");
+        try (Writer writer = processingEnv.getFiler()
+            .createSourceFile(INDEX_PACKAGE + "." + INDEX_NAME).openWriter()) {
+            writer.write(source.toString());
+        }
+        final FileObject services = processingEnv.getFiler().createResource(StandardLocation.CLASS_OUTPUT, "",
+            "META-INF/services/" + INDEX_PACKAGE + ".ValidationApiIndex");
+        try (Writer writer = services.openWriter()) {
+            writer.write(INDEX_PACKAGE + "." + INDEX_NAME + "\n");
+        }
+    }
+
+    private void writeReflectConfig(final Map<TypeElement, ScannedClass> scannedClasses) throws IOException {
+        final String classes = scannedClasses.keySet().stream()
+            .map(type -> "  {\"name\": \"" + processingEnv.getElementUtils().getBinaryName(type)
+                + "\", \"allDeclaredFields\": true}")
+            .collect(Collectors.joining(",\n"));
+        final FileObject reflectConfig = processingEnv.getFiler()
+            .createResource(StandardLocation.CLASS_OUTPUT, "", REFLECT_CONFIG);
+        try (Writer writer = reflectConfig.openWriter()) {
+            writer.write("[\n" + classes + "\n]\n");
+        }
+    }
+
+    /**
+     * Class literal when the class is accessible from the generated index, lookup by name otherwise.
+     */
+    private String classLiteral(final TypeElement type) {
+        for (Element element = type; element instanceof TypeElement; element = element.getEnclosingElement()) {
+            if (!element.getModifiers().contains(Modifier.PUBLIC)) {
+                return "Class.forName(\"" + processingEnv.getElementUtils().getBinaryName(type) + "\")";
+            }
+        }
+        return type.getQualifiedName() + ".class";
+    }
+
+    private static TypeElement asTypeElement(final TypeMirror type) {
+        if (type == null || type.getKind() != TypeKind.DECLARED) {
+            return null;
+        }
+        return (TypeElement) ((DeclaredType) type).asElement();
+    }
+
+    private static AnnotationMirror findAnnotation(final Element element, final String annotationType) {
+        for (final AnnotationMirror annotation : element.getAnnotationMirrors()) {
+            if (((TypeElement) annotation.getAnnotationType().asElement()).getQualifiedName()
+                .contentEquals(annotationType)) {
+                return annotation;
+            }
+        }
+        return null;
+    }
+
+    private static final class ScannedClass {
+
+        private final int index;
+        // field name to the class it refers to, in declaration order
+        private final Map<String, ScannedClass> fields = new LinkedHashMap<>();
+
+        private ScannedClass(final int index) {
+            this.index = index;
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package com.quaso.validation.engine;
+
+import com.quaso.validation.engine.config.properties.ValidationEngineProperties;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import javax.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+/**
+ * Runs asynchronous validations and the configuration loads they wait for on a bounded thread pool. When the queue
+ * is full, {@link RejectedExecutionException} is thrown instead of blocking the caller. The pool is created on first
+ * use, so it costs nothing while only synchronous validation is used.
+ */
+@Component
+@RequiredArgsConstructor
+public class AsyncValidationExecutor implements Executor {
+
+    private final ValidationEngineProperties validationEngineProperties;
+
+    private final LazyPool<ThreadPoolExecutor> pool = new LazyPool<>(this::createPool);
+
+    @Override
+    public void execute(final Runnable command) {
+        pool.get().execute(command);
+    }
+
+    private ThreadPoolExecutor createPool() {
+        final ValidationEngineProperties.Async async = validationEngineProperties.getAsync();
+        final int threads = async.getThreads() > 0 ? async.getThreads() : Runtime.getRuntime().availableProcessors();
+        final AtomicInteger threadNumber = new AtomicInteger();
+        return new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(Math.max(1, async.getQueueCapacity())), runnable -> {
+                final Thread thread = new Thread(runnable, "validation-async-" + threadNumber.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        pool.shutdown();
+    }
+}
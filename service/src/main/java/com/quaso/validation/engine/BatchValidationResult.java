@@ -0,0 +1,34 @@
+package com.quaso.validation.engine;
+
+import java.util.Collections;
+import java.util.List;
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Value;
+
+/**
+ * Result of one request of a batch, see {@link ValidationEngine#validateAll}. A request which cannot be validated,
+ * e.g. of a type unknown in ValidationApi or with a rule throwing an exception, has its failure instead of validation
+ * errors, and the rest of the batch is validated normally.
+ */
+@Value
+@AllArgsConstructor(access = AccessLevel.PRIVATE)
+public class BatchValidationResult {
+
+    // empty when the request was not validated
+    private final List<ValidationErrorResponse> errors;
+    // null when the request was validated
+    private final RuntimeException failure;
+
+    static BatchValidationResult validated(final List<ValidationErrorResponse> errors) {
+        return new BatchValidationResult(errors, null);
+    }
+
+    static BatchValidationResult failed(final RuntimeException failure) {
+        return new BatchValidationResult(Collections.emptyList(), failure);
+    }
+
+    public boolean isValidated() {
+        return failure == null;
+    }
+}
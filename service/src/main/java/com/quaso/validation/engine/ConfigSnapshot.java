@@ -0,0 +1,16 @@
+package com.quaso.validation.engine;
+
+import com.quaso.validation.engine.config.ClassDetails;
+import java.util.Map;
+import lombok.Value;
+
+/**
+ * Scanned request types and configuration version pinned by one validation call, so the whole call uses the same
+ * configuration even when it is reloaded meanwhile. Both are published as immutable values, pinning takes no lock.
+ */
+@Value
+class ConfigSnapshot {
+
+    private final Map<Class<?>, ClassDetails> knownClasses;
+    private final long configVersion;
+}
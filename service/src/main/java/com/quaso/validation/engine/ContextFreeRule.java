@@ -0,0 +1,9 @@
+package com.quaso.validation.engine;
+
+/**
+ * Marker of rule configurations whose result depends only on the validated value, not on the validation context or
+ * anything else. Engine remembers values passing such rules and does not evaluate the rule for them again, see
+ * {@code validation.engine.rule-memo}.
+ */
+public interface ContextFreeRule {
+}
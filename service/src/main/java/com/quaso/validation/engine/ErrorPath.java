@@ -0,0 +1,54 @@
+package com.quaso.validation.engine;
+
+/**
+ * Path of a validated object from the request, one node per level. Nodes are shared by all errors below them and
+ * rendered to the field path string only when the error is reported, e.g. {@code Order.[2]Item.sku}.
+ */
+final class ErrorPath {
+
+    private static final int NOT_IN_LIST = -1;
+
+    private final ErrorPath parent;
+    private final Class<?> type;
+    // position of the object in list field of the parent, counted from 1
+    private final int positionInList;
+    private final int depth;
+
+    private ErrorPath(final ErrorPath parent, final Class<?> type, final int positionInList) {
+        this.parent = parent;
+        this.type = type;
+        this.positionInList = positionInList;
+        this.depth = parent == null ? 1 : parent.depth + 1;
+    }
+
+    static ErrorPath root(final Class<?> type) {
+        return new ErrorPath(null, type, NOT_IN_LIST);
+    }
+
+    ErrorPath child(final Class<?> childType, final Integer childPositionInList) {
+        return new ErrorPath(this, childType, childPositionInList == null ? NOT_IN_LIST : childPositionInList);
+    }
+
+    String render(final String fieldName) {
+        final ErrorPath[] nodes = new ErrorPath[depth];
+        ErrorPath node = this;
+        for (int i = depth - 1; i >= 0; i--) {
+            nodes[i] = node;
+            node = node.parent;
+        }
+        final StringBuilder result = new StringBuilder();
+        for (int i = 0; i < nodes.length; i++) {
+            if (i > 0) {
+                result.append('.');
+            }
+            if (nodes[i].positionInList != NOT_IN_LIST) {
+                result.append('[').append(nodes[i].positionInList).append(']');
+            }
+            result.append(nodes[i].type.getSimpleName());
+        }
+        if (fieldName != null) {
+            result.append('.').append(fieldName);
+        }
+        return result.toString();
+    }
+}
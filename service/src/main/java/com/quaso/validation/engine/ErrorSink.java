@@ -0,0 +1,88 @@
+package com.quaso.validation.engine;
+
+import com.quaso.validation.engine.config.model.RuleConfiguration;
+import com.quaso.validation.engine.config.properties.ValidationEngineProperties;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Append-only collection of failures of one validation, shared by all levels of the validated request. Once the
+ * maximal number of failures is collected, further ones are dropped and validation stops. With deduplication, only
+ * the first failure of every rule of a field (or class) is kept, e.g. of the first list element with an invalid
+ * value. Not thread safe, list chunks validated in parallel collect into their own forks, which share the maximal
+ * number of failures with this sink.
+ */
+final class ErrorSink {
+
+    private final List<ValidationFailure> failures = new ArrayList<>();
+    // failures this sink and all its forks can still take
+    private final AtomicInteger remaining;
+    // null without deduplication
+    private final Set<RuleConfiguration> failedRules;
+
+    private ErrorSink(final AtomicInteger remaining, final boolean deduplicate) {
+        this.remaining = remaining;
+        this.failedRules = deduplicate ? Collections.newSetFromMap(new IdentityHashMap<>()) : null;
+    }
+
+    static ErrorSink create(final ValidationEngineProperties.Errors properties) {
+        return new ErrorSink(new AtomicInteger(properties.getMaxCount() > 0 ? properties.getMaxCount()
+            : Integer.MAX_VALUE), properties.isDeduplicate());
+    }
+
+    void add(final ValidationFailure failure) {
+        if (failedRules != null && failedRules.contains(failure.getRuleConfiguration()) || !reserve()) {
+            return;
+        }
+        if (failedRules != null) {
+            failedRules.add(failure.getRuleConfiguration());
+        }
+        failures.add(failure);
+    }
+
+    boolean isFull() {
+        return remaining.get() <= 0;
+    }
+
+    /**
+     * @return empty sink taking failures from the same maximal number as this sink, to be merged back by
+     * {@link #addAll}
+     */
+    ErrorSink fork() {
+        return new ErrorSink(remaining, failedRules != null);
+    }
+
+    /**
+     * Appends failures of a fork, deduplicated again with the failures collected meanwhile. Failures of the fork are
+     * already counted.
+     */
+    void addAll(final ErrorSink fork) {
+        for (final ValidationFailure failure : fork.failures) {
+            if (failedRules != null && !failedRules.add(failure.getRuleConfiguration())) {
+                // dropped, its place is free again
+                remaining.incrementAndGet();
+            } else {
+                failures.add(failure);
+            }
+        }
+    }
+
+    List<ValidationFailure> getFailures() {
+        return failures;
+    }
+
+    private boolean reserve() {
+        int current;
+        do {
+            current = remaining.get();
+            if (current <= 0) {
+                return false;
+            }
+        } while (!remaining.compareAndSet(current, current - 1));
+        return true;
+    }
+}
@@ -0,0 +1,219 @@
+package com.quaso.validation.engine;
+
+import com.quaso.validation.engine.ValidationPlan.ChildStep;
+import com.quaso.validation.engine.ValidationPlan.FieldStep;
+import com.quaso.validation.engine.ValidationPlan.Node;
+import com.quaso.validation.utils.FieldAccessor;
+import com.quaso.validation.utils.ReflectionUtils;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import org.apache.commons.lang3.StringUtils;
+
+/**
+ * Changed parts of a request, as a tree following its fields and list elements. A node is either changed as a whole,
+ * or lists its changed fields (objects) or elements (lists).
+ */
+final class FieldChanges {
+
+    static final FieldChanges ALL = new FieldChanges(true, Collections.emptyMap(), Collections.emptyMap());
+    static final FieldChanges NONE = new FieldChanges(false, Collections.emptyMap(), Collections.emptyMap());
+
+    private final boolean all;
+    private final Map<String, FieldChanges> fields;
+    // key is index in the list, counted from 0
+    private final Map<Integer, FieldChanges> elements;
+
+    private FieldChanges(final boolean all, final Map<String, FieldChanges> fields,
+        final Map<Integer, FieldChanges> elements) {
+        this.all = all;
+        this.fields = fields;
+        this.elements = elements;
+    }
+
+    private FieldChanges() {
+        this(false, new HashMap<>(), new HashMap<>());
+    }
+
+    /**
+     * @param fieldPaths paths of changed fields relative to the request, e.g. {@code customer.address.city},
+     * {@code items[2].sku} or {@code items}; empty path means the whole request
+     */
+    static FieldChanges parse(final Collection<String> fieldPaths) {
+        final FieldChanges result = new FieldChanges();
+        for (final String fieldPath : fieldPaths) {
+            final List<Object> keys = parseKeys(fieldPath);
+            if (keys.isEmpty()) {
+                return ALL;
+            }
+            FieldChanges node = result;
+            for (int i = 0; i < keys.size() - 1 && !node.all; i++) {
+                node = node.child(keys.get(i));
+            }
+            if (!node.all) {
+                // replaces changes found below the node so far
+                node.putAll(keys.get(keys.size() - 1));
+            }
+        }
+        return result;
+    }
+
+    /**
+     * @return field names and list indexes of the path
+     */
+    private static List<Object> parseKeys(final String fieldPath) {
+        final List<Object> result = new ArrayList<>();
+        try {
+            for (final String segment : StringUtils.split(fieldPath, '.')) {
+                int bracket = segment.indexOf('[');
+                result.add(bracket < 0 ? segment : segment.substring(0, bracket));
+                while (bracket >= 0) {
+                    final int end = segment.indexOf(']', bracket);
+                    result.add(Integer.parseInt(segment.substring(bracket + 1, end)));
+                    bracket = segment.indexOf('[', end);
+                }
+            }
+        } catch (final NumberFormatException | IndexOutOfBoundsException ex) {
+            throw new IllegalArgumentException("Invalid field path " + fieldPath, ex);
+        }
+        return result;
+    }
+
+    /**
+     * Compares two versions of an object along the validation plan. Only fields read by the plan are compared,
+     * including fields read by inputs of class rules below, and for objects with class rules also the rest of their
+     * fields.
+     */
+    static FieldChanges diff(final Node node, final Object previous, final Object current) {
+        if (previous == current) {
+            return NONE;
+        }
+        if (previous == null || current == null || previous.getClass() != current.getClass()) {
+            return ALL;
+        }
+        final FieldChanges result = new FieldChanges();
+        for (final FieldStep fieldStep : node.getFieldSteps()) {
+            if (!Objects.equals(fieldStep.getValue(previous), fieldStep.getValue(current))) {
+                result.fields.put(fieldStep.getName(), ALL);
+            }
+        }
+        for (final ChildStep child : node.getChildren()) {
+            final Object previousValue = child.getAccessor().get(previous);
+            final Object currentValue = child.getAccessor().get(current);
+            final FieldChanges childChanges = child.isList()
+                ? diffList(child.getTarget(), (List<?>) previousValue, (List<?>) currentValue)
+                : diff(child.getTarget(), previousValue, currentValue);
+            if (!childChanges.isEmpty()) {
+                result.fields.put(child.getFieldDetails().getField().getName(), childChanges);
+            }
+        }
+        for (final ChildStep child : node.getChildren()) {
+            // class rules below may read fields of this object through 'parent.', 'any.' or 'top.' inputs
+            for (final String inputField : child.getTarget().getInputFields()) {
+                final FieldAccessor accessor = ReflectionUtils.findAccessor(current.getClass(), inputField);
+                if (accessor != null && !result.fields.containsKey(inputField)
+                    && !Objects.equals(accessor.get(previous), accessor.get(current))) {
+                    result.fields.put(inputField, ALL);
+                }
+            }
+        }
+        if (result.fields.isEmpty() && node.getClassRules().length > 0) {
+            // class rules see the whole object, not only the fields compared above
+            final Field changedField = findChangedField(previous, current);
+            if (changedField != null) {
+                result.fields.put(changedField.getName(), ALL);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * @return first field declared by the class of the objects or its superclasses with different values, null when
+     * all are equal
+     */
+    private static Field findChangedField(final Object previous, final Object current) {
+        for (Class<?> type = current.getClass(); type != null && type != Object.class; type = type.getSuperclass()) {
+            for (final Field field : type.getDeclaredFields()) {
+                if (!Modifier.isStatic(field.getModifiers()) && !Objects.equals(
+                    ReflectionUtils.getFieldValue(previous, field), ReflectionUtils.getFieldValue(current, field))) {
+                    return field;
+                }
+            }
+        }
+        return null;
+    }
+
+    private static FieldChanges diffList(final Node node, final List<?> previous, final List<?> current) {
+        if (previous == current) {
+            return NONE;
+        }
+        if (previous == null || current == null || previous.size() != current.size()) {
+            // elements may have moved, every one of them is validated again
+            return ALL;
+        }
+        final FieldChanges result = new FieldChanges();
+        for (int i = 0; i < current.size(); i++) {
+            final FieldChanges elementChanges = diff(node, previous.get(i), current.get(i));
+            if (!elementChanges.isEmpty()) {
+                result.elements.put(i, elementChanges);
+            }
+        }
+        return result;
+    }
+
+    boolean isAll() {
+        return all;
+    }
+
+    boolean isEmpty() {
+        return !all && fields.isEmpty() && elements.isEmpty();
+    }
+
+    boolean hasFields() {
+        return !fields.isEmpty();
+    }
+
+    Set<String> getFieldNames() {
+        return fields.keySet();
+    }
+
+    /**
+     * @return changes of the field, null when it did not change
+     */
+    FieldChanges getField(final String name) {
+        return fields.get(name);
+    }
+
+    /**
+     * @return changes of the list element, null when it did not change
+     */
+    FieldChanges getElement(final int index) {
+        return elements.get(index);
+    }
+
+    /**
+     * @param key field name or list index
+     */
+    private FieldChanges child(final Object key) {
+        return key instanceof Integer ? elements.computeIfAbsent((Integer) key, index -> new FieldChanges())
+            : fields.computeIfAbsent((String) key, name -> new FieldChanges());
+    }
+
+    /**
+     * @param key field name or list index changed as a whole
+     */
+    private void putAll(final Object key) {
+        if (key instanceof Integer) {
+            elements.put((Integer) key, ALL);
+        } else {
+            fields.put((String) key, ALL);
+        }
+    }
+}
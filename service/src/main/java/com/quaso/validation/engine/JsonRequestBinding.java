@@ -0,0 +1,259 @@
+package com.quaso.validation.engine;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.Nulls;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.BeanDescription;
+import com.fasterxml.jackson.databind.DeserializationConfig;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.JsonDeserializer;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.deser.BeanDeserializer;
+import com.fasterxml.jackson.databind.deser.DefaultDeserializationContext;
+import com.fasterxml.jackson.databind.deser.SettableBeanProperty;
+import com.fasterxml.jackson.databind.deser.ValueInstantiator;
+import com.fasterxml.jackson.databind.deser.impl.SetterlessProperty;
+import com.fasterxml.jackson.databind.deser.std.ContainerDeserializerBase;
+import com.fasterxml.jackson.databind.exc.IgnoredPropertyException;
+import com.fasterxml.jackson.databind.introspect.AnnotatedMember;
+import com.fasterxml.jackson.databind.introspect.BeanPropertyDefinition;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Binds a request from JSON one property at a time through the {@link BeanDeserializer} Jackson uses for the request
+ * type, so property annotations and unknown property handling are the same as for the whole request. Only vanilla
+ * beans with default constructor can be bound this way, see {@link #isStreamable()}.
+ */
+final class JsonRequestBinding {
+
+    private static final ObjectMapper DEFAULT_OBJECT_MAPPER = new ObjectMapper();
+
+    // object mappers are expected to be long living, typically one per application
+    private static final ClassValue<Map<ObjectMapper, JsonRequestBinding>> BINDINGS =
+        new ClassValue<Map<ObjectMapper, JsonRequestBinding>>() {
+            @Override
+            protected Map<ObjectMapper, JsonRequestBinding> computeValue(final Class<?> type) {
+                return new ConcurrentHashMap<>();
+            }
+        };
+
+    private final ObjectMapper objectMapper;
+    private final Class<?> requestType;
+    // null when the request type is not streamable
+    private final BeanDeserializer deserializer;
+    private final boolean ignoreAllUnknown;
+    private final Set<String> ignoredProperties = new HashSet<>();
+    // key is canonical JSON property name
+    private final Map<String, Property> properties = new HashMap<>();
+
+    private JsonRequestBinding(final ObjectMapper objectMapper, final Class<?> requestType) throws IOException {
+        this.objectMapper = objectMapper;
+        this.requestType = requestType;
+        final DeserializationConfig config = objectMapper.getDeserializationConfig();
+        final JavaType javaType = objectMapper.constructType(requestType);
+        final BeanDescription beanDescription = config.introspect(javaType);
+        final JsonIgnoreProperties.Value ignorals =
+            config.getDefaultPropertyIgnorals(requestType, beanDescription.getClassInfo());
+        this.ignoreAllUnknown = ignorals != null && ignorals.getIgnoreUnknown();
+        if (ignorals != null) {
+            ignoredProperties.addAll(ignorals.findIgnoredForDeserialization());
+        }
+        ignoredProperties.addAll(beanDescription.getIgnoredPropertyNames());
+
+        final DeserializationContext context = createContext(null);
+        final JsonDeserializer<Object> rootDeserializer = context.findRootValueDeserializer(javaType);
+        this.deserializer = isStreamable(rootDeserializer, beanDescription, config)
+            ? (BeanDeserializer) rootDeserializer : null;
+        if (deserializer == null) {
+            return;
+        }
+        final Map<String, String> internalNames = new HashMap<>();
+        for (final BeanPropertyDefinition definition : beanDescription.findProperties()) {
+            internalNames.put(definition.getName(), definition.getInternalName());
+        }
+        for (final Iterator<SettableBeanProperty> it = deserializer.properties(); it.hasNext(); ) {
+            final SettableBeanProperty property = it.next();
+            final String name = internalNames.getOrDefault(property.getName(), property.getName());
+            properties.put(property.getName(), new Property(name, property, findListDeserializer(property, context,
+                config)));
+        }
+    }
+
+    /**
+     * Uses object mapper of the parser, default object mapper when the parser was not created by one.
+     */
+    static JsonRequestBinding of(final JsonParser parser, final Class<?> requestType) {
+        final ObjectMapper objectMapper = parser.getCodec() instanceof ObjectMapper
+            ? (ObjectMapper) parser.getCodec() : DEFAULT_OBJECT_MAPPER;
+        return BINDINGS.get(requestType).computeIfAbsent(objectMapper, mapper -> {
+            try {
+                return new JsonRequestBinding(mapper, requestType);
+            } catch (final IOException ex) {
+                throw new UncheckedIOException(ex);
+            }
+        });
+    }
+
+    private static boolean isStreamable(final JsonDeserializer<?> rootDeserializer,
+        final BeanDescription beanDescription, final DeserializationConfig config) {
+        // subclasses handle builders, unwrapped or external type id properties
+        if (rootDeserializer.getClass() != BeanDeserializer.class) {
+            return false;
+        }
+        final BeanDeserializer deserializer = (BeanDeserializer) rootDeserializer;
+        final ValueInstantiator instantiator = deserializer.getValueInstantiator();
+        if (!instantiator.canCreateUsingDefault() || instantiator.canCreateFromObjectWith()
+            || deserializer.getObjectIdReader() != null || beanDescription.findAnySetterAccessor() != null
+            || beanDescription.findInjectables() != null && !beanDescription.findInjectables().isEmpty()) {
+            return false;
+        }
+        for (final BeanPropertyDefinition definition : beanDescription.findProperties()) {
+            final AnnotatedMember member = definition.getPrimaryMember();
+            if (member != null && config.getAnnotationIntrospector().findUnwrappingNameTransformer(member) != null) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @return deserializer of the list, null when the list can be read only as a whole
+     */
+    private static ContainerDeserializerBase<?> findListDeserializer(final SettableBeanProperty property,
+        final DeserializationContext context, final DeserializationConfig config) throws IOException {
+        final JsonDeserializer<?> valueDeserializer = property.getValueDeserializer();
+        if (!property.getType().isCollectionLikeType() || !(valueDeserializer instanceof ContainerDeserializerBase)
+            || property instanceof SetterlessProperty || property.getValueTypeDeserializer() != null) {
+            return null;
+        }
+        final ContainerDeserializerBase<?> listDeserializer = (ContainerDeserializerBase<?>) valueDeserializer;
+        // content deserializer is null when the list handles its elements itself
+        if (listDeserializer.getContentDeserializer() == null || listDeserializer.getValueInstantiator() == null
+            || !listDeserializer.getValueInstantiator().canCreateUsingDefault()) {
+            return null;
+        }
+        final Nulls contentNulls = property.getMetadata().getContentNulls() != null
+            ? property.getMetadata().getContentNulls() : config.getDefaultSetterInfo().getContentNulls();
+        if (contentNulls != null && contentNulls != Nulls.DEFAULT) {
+            return null;
+        }
+        final JavaType elementType = property.getType().getContentType();
+        if (context.getFactory().findTypeDeserializer(config, elementType) != null) {
+            return null;
+        }
+        return listDeserializer;
+    }
+
+    boolean isStreamable() {
+        return deserializer != null;
+    }
+
+    /**
+     * @param parser null when the context is not used for reading
+     */
+    DeserializationContext createContext(final JsonParser parser) {
+        return ((DefaultDeserializationContext) objectMapper.getDeserializationContext())
+            .createInstance(objectMapper.getDeserializationConfig(), parser, objectMapper.getInjectableValues());
+    }
+
+    Object instantiate(final DeserializationContext context) throws IOException {
+        return deserializer.getValueInstantiator().createUsingDefault(context);
+    }
+
+    /**
+     * Skips the value of the property when it is unknown, ignored or not visible in the active view, the parser
+     * being at the first token of the value.
+     *
+     * @return property with the JSON name, null when the value was skipped
+     */
+    Property findProperty(final JsonParser parser, final DeserializationContext context, final Object bean,
+        final String jsonName) throws IOException {
+        final SettableBeanProperty property = deserializer.findProperty(jsonName);
+        if (property == null) {
+            if (ignoreAllUnknown) {
+                parser.skipChildren();
+            } else if (ignoredProperties.contains(jsonName)) {
+                if (context.isEnabled(DeserializationFeature.FAIL_ON_IGNORED_PROPERTIES)) {
+                    throw IgnoredPropertyException.from(parser, bean, jsonName,
+                        deserializer.getKnownPropertyNames());
+                }
+                parser.skipChildren();
+            } else if (!context.handleUnknownProperty(parser, deserializer, bean, jsonName)) {
+                parser.skipChildren();
+            }
+            return null;
+        }
+        if (context.getActiveView() != null && !property.visibleInView(context.getActiveView())) {
+            parser.skipChildren();
+            return null;
+        }
+        return properties.get(property.getName());
+    }
+
+    Collection<Property> getProperties() {
+        return properties.values();
+    }
+
+    /**
+     * Reads the whole request starting at the current token of the parser.
+     */
+    Object readValue(final JsonParser parser) throws IOException {
+        return objectMapper.readValue(parser, requestType);
+    }
+
+    @Getter(AccessLevel.PACKAGE)
+    @RequiredArgsConstructor(access = AccessLevel.PRIVATE)
+    static final class Property {
+
+        // name of the java field
+        private final String name;
+        @Getter(AccessLevel.NONE)
+        private final SettableBeanProperty property;
+        @Getter(AccessLevel.NONE)
+        private final ContainerDeserializerBase<?> listDeserializer;
+
+        /**
+         * @return true when elements of the list can be read one by one, see {@link #readElement}
+         */
+        boolean isElementStreamable() {
+            return listDeserializer != null;
+        }
+
+        void deserializeAndSet(final JsonParser parser, final DeserializationContext context, final Object bean)
+            throws IOException {
+            property.deserializeAndSet(parser, context, bean);
+        }
+
+        @SuppressWarnings("unchecked")
+        Collection<Object> createList(final DeserializationContext context) throws IOException {
+            return (Collection<Object>) listDeserializer.getValueInstantiator().createUsingDefault(context);
+        }
+
+        /**
+         * Reads list element starting at the current token of the parser.
+         */
+        Object readElement(final JsonParser parser, final DeserializationContext context) throws IOException {
+            final JsonDeserializer<Object> elementDeserializer = listDeserializer.getContentDeserializer();
+            return parser.currentToken() == JsonToken.VALUE_NULL
+                ? elementDeserializer.getNullValue(context) : elementDeserializer.deserialize(parser, context);
+        }
+
+        void set(final Object bean, final Object value) throws IOException {
+            property.set(bean, value);
+        }
+    }
+}
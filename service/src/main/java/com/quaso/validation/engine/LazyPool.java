@@ -0,0 +1,42 @@
+package com.quaso.validation.engine;
+
+import java.util.concurrent.ExecutorService;
+import java.util.function.Supplier;
+
+/**
+ * Executor service created on first use, so it costs nothing until it is needed.
+ */
+final class LazyPool<T extends ExecutorService> {
+
+    private final Supplier<T> factory;
+
+    private volatile T pool;
+
+    LazyPool(final Supplier<T> factory) {
+        this.factory = factory;
+    }
+
+    T get() {
+        T result = pool;
+        if (result == null) {
+            synchronized (this) {
+                result = pool;
+                if (result == null) {
+                    result = factory.get();
+                    pool = result;
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Shuts the pool down now, when it was created.
+     */
+    void shutdown() {
+        final T result = pool;
+        if (result != null) {
+            result.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,9 @@
+package com.quaso.validation.engine;
+
+/**
+ * Marker of rule configurations which depend on the rules configured before them, e.g. assume the value passed
+ * them. Adaptive rule ordering never moves any rule across such a rule, see
+ * {@code validation.engine.rule-ordering.adaptive}.
+ */
+public interface OrderDependentRule {
+}
@@ -0,0 +1,72 @@
+package com.quaso.validation.engine;
+
+import com.quaso.validation.engine.config.properties.ValidationEngineProperties;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import javax.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+/**
+ * Runs validation of list chunks on a dedicated {@link ForkJoinPool}. The pool is created on first use, so it costs
+ * nothing while parallel validation is disabled.
+ */
+@Component
+@RequiredArgsConstructor
+public class ParallelValidationExecutor {
+
+    private final ValidationEngineProperties validationEngineProperties;
+
+    private final LazyPool<ForkJoinPool> pool = new LazyPool<>(this::createPool);
+
+    boolean isParallel(final int size) {
+        final ValidationEngineProperties.Parallel parallel = validationEngineProperties.getParallel();
+        return parallel.isEnabled() && size >= parallel.getThreshold() && size > getChunkSize();
+    }
+
+    int getChunkSize() {
+        return Math.max(1, validationEngineProperties.getParallel().getChunkSize());
+    }
+
+    /**
+     * Executes all tasks and returns their results in the order of tasks. When a task fails, the tasks not started
+     * yet are cancelled and the exception is rethrown.
+     */
+    <T> List<T> invokeAll(final List<Callable<T>> tasks) {
+        final ForkJoinPool forkJoinPool = pool.get();
+        final List<ForkJoinTask<T>> forkJoinTasks = new ArrayList<>(tasks.size());
+        for (final Callable<T> task : tasks) {
+            final ForkJoinTask<T> forkJoinTask = ForkJoinTask.adapt(task);
+            if (ForkJoinTask.getPool() == forkJoinPool) {
+                // nested list, let the current worker help with it
+                forkJoinTask.fork();
+            } else {
+                forkJoinPool.execute(forkJoinTask);
+            }
+            forkJoinTasks.add(forkJoinTask);
+        }
+        final List<T> result = new ArrayList<>(tasks.size());
+        try {
+            for (final ForkJoinTask<T> forkJoinTask : forkJoinTasks) {
+                result.add(forkJoinTask.join());
+            }
+        } catch (final RuntimeException | Error ex) {
+            forkJoinTasks.forEach(forkJoinTask -> forkJoinTask.cancel(false));
+            throw ex;
+        }
+        return result;
+    }
+
+    private ForkJoinPool createPool() {
+        final int parallelism = validationEngineProperties.getParallel().getParallelism();
+        return new ForkJoinPool(parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        pool.shutdown();
+    }
+}
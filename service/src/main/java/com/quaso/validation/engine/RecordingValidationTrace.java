@@ -0,0 +1,112 @@
+package com.quaso.validation.engine;
+
+import com.quaso.validation.engine.config.model.RuleConfiguration;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.http.HttpMethod;
+
+/**
+ * Collects events of traced validation and logs them as a tree when the validation finishes. Events of list elements
+ * validated in parallel may interleave, each of them is still placed on its own level.
+ */
+@Slf4j
+@RequiredArgsConstructor
+class RecordingValidationTrace implements ValidationTrace {
+
+    private final Class<?> requestType;
+    private final HttpMethod httpMethod;
+    private final String allianceCode;
+    private final String partnerCode;
+
+    private final Queue<Event> events = new ConcurrentLinkedQueue<>();
+
+    @Override
+    public void enterClass(final int level, final Class<?> type) {
+        events.add(new Event(EventType.ENTER_CLASS, level, type, 0, null));
+    }
+
+    @Override
+    public void noConfig(final int level) {
+        events.add(new Event(EventType.NO_CONFIG, level, null, 0, null));
+    }
+
+    @Override
+    public void exitClass(final int level, final Class<?> type) {
+        events.add(new Event(EventType.EXIT_CLASS, level, type, 0, null));
+    }
+
+    @Override
+    public void field(final int level, final String fieldName) {
+        events.add(new Event(EventType.FIELD, level, fieldName, 0, null));
+    }
+
+    @Override
+    public void listElement(final int level, final String fieldName, final int positionInList) {
+        events.add(new Event(EventType.LIST_ELEMENT, level, fieldName, positionInList, null));
+    }
+
+    @Override
+    public void rule(final int level, final boolean classRule, final int index,
+        final RuleConfiguration ruleConfiguration, final ValidationFailure failure) {
+        events.add(new Event(classRule ? EventType.CLASS_RULE : EventType.FIELD_RULE, level, ruleConfiguration,
+            index, failure));
+    }
+
+    @Override
+    public void finish(final int errorCount) {
+        final StringBuilder result = new StringBuilder();
+        for (final Event event : events) {
+            result.append(System.lineSeparator());
+            event.appendTo(result);
+        }
+        log.info("Validation trace of {} {} for alliance {} partner {}, {} error(s):{}", httpMethod,
+            requestType.getSimpleName(), allianceCode, partnerCode, errorCount, result);
+    }
+
+    private enum EventType {
+        ENTER_CLASS, NO_CONFIG, EXIT_CLASS, FIELD, LIST_ELEMENT, CLASS_RULE, FIELD_RULE
+    }
+
+    @RequiredArgsConstructor
+    private static class Event {
+
+        private final EventType type;
+        private final int level;
+        private final Object subject;
+        private final int index;
+        private final ValidationFailure failure;
+
+        private void appendTo(final StringBuilder result) {
+            result.append(StringUtils.repeat("|  ", level)).append(type == EventType.EXIT_CLASS ? "\\- " : "+- ");
+            switch (type) {
+                case ENTER_CLASS:
+                    result.append("Validating class ").append(((Class<?>) subject).getSimpleName());
+                    break;
+                case NO_CONFIG:
+                    result.append("No config");
+                    break;
+                case EXIT_CLASS:
+                    result.append("Validation class ").append(((Class<?>) subject).getSimpleName())
+                        .append(" finished");
+                    break;
+                case FIELD:
+                    result.append("Validating field ").append(subject);
+                    break;
+                case LIST_ELEMENT:
+                    result.append("Field ").append(subject).append(" element ").append(index);
+                    break;
+                default:
+                    result.append(type == EventType.CLASS_RULE ? "Validating class rule " : "Validating rule ")
+                        .append(index).append(": ").append(((RuleConfiguration) subject).getLogString());
+                    if (failure != null) {
+                        result.append(" -> failed ")
+                            .append(failure.getPath().render(failure.getFieldName())).append(' ')
+                            .append(failure.getValidationErrorResponse().getFullMessage());
+                    }
+            }
+        }
+    }
+}
@@ -0,0 +1,103 @@
+package com.quaso.validation.engine;
+
+import com.quaso.validation.engine.config.model.RuleConfiguration;
+import com.quaso.validation.utils.BoundedCache;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.Currency;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Values which passed a {@link ContextFreeRule}. Only passing results are remembered, as error responses are
+ * completed per occurrence. Only immutable values with value equality are remembered.
+ */
+class RuleMemo {
+
+    static final RuleMemo DISABLED = new RuleMemo(null, null);
+
+    private static final int MAX_STRING_LENGTH = 256;
+    private static final Set<Class<?>> VALUE_TYPES = Set.of(Boolean.class, Character.class, Byte.class, Short.class,
+        Integer.class, Long.class, Float.class, Double.class, BigDecimal.class, BigInteger.class, UUID.class,
+        Currency.class);
+
+    // one of them is set, shared cache or values of one validation
+    private final BoundedCache<Key, Boolean> sharedValues;
+    private final Map<Key, Boolean> values;
+
+    private RuleMemo(final BoundedCache<Key, Boolean> sharedValues, final Map<Key, Boolean> values) {
+        this.sharedValues = sharedValues;
+        this.values = values;
+    }
+
+    static RuleMemo shared(final BoundedCache<Key, Boolean> sharedValues) {
+        return new RuleMemo(sharedValues, null);
+    }
+
+    static RuleMemo perValidation() {
+        return new RuleMemo(null, new ConcurrentHashMap<>());
+    }
+
+    /**
+     * @return whether result of the rule for the value can be remembered
+     */
+    boolean isMemoizable(final RuleConfiguration ruleConfiguration, final Object value) {
+        if (this == DISABLED || !(ruleConfiguration instanceof ContextFreeRule)) {
+            return false;
+        }
+        if (value == null || value instanceof Enum || VALUE_TYPES.contains(value.getClass())) {
+            return true;
+        }
+        if (value instanceof String) {
+            return ((String) value).length() <= MAX_STRING_LENGTH;
+        }
+        return value.getClass().getName().startsWith("java.time.");
+    }
+
+    boolean isValid(final RuleConfiguration ruleConfiguration, final Object value) {
+        final Key key = new Key(ruleConfiguration, value);
+        return (sharedValues != null ? sharedValues.getIfPresent(key) : values.get(key)) != null;
+    }
+
+    void putValid(final RuleConfiguration ruleConfiguration, final Object value) {
+        final Key key = new Key(ruleConfiguration, value);
+        if (sharedValues != null) {
+            sharedValues.put(key, Boolean.TRUE);
+        } else {
+            values.put(key, Boolean.TRUE);
+        }
+    }
+
+    /**
+     * Rule is compared by identity, rule configurations are replaced as a whole when reloaded.
+     */
+    static final class Key {
+
+        private final RuleConfiguration ruleConfiguration;
+        private final Object value;
+        private final int hashCode;
+
+        private Key(final RuleConfiguration ruleConfiguration, final Object value) {
+            this.ruleConfiguration = ruleConfiguration;
+            this.value = value;
+            this.hashCode = 31 * System.identityHashCode(ruleConfiguration) + (value == null ? 0 : value.hashCode());
+        }
+
+        @Override
+        public boolean equals(final Object object) {
+            if (!(object instanceof Key)) {
+                return false;
+            }
+            final Key key = (Key) object;
+            return ruleConfiguration == key.ruleConfiguration && Objects.equals(value, key.value);
+        }
+
+        @Override
+        public int hashCode() {
+            return hashCode;
+        }
+    }
+}
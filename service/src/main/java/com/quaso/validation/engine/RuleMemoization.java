@@ -0,0 +1,36 @@
+package com.quaso.validation.engine;
+
+import com.quaso.validation.engine.RuleMemo.Key;
+import com.quaso.validation.engine.config.properties.ValidationEngineProperties;
+import com.quaso.validation.utils.BoundedCache;
+import org.springframework.stereotype.Component;
+
+/**
+ * Decides where results of {@link ContextFreeRule} rules are remembered, either in a cache shared by all validations
+ * or only within one validation, see {@code validation.engine.rule-memo}.
+ */
+@Component
+public class RuleMemoization {
+
+    private final ValidationEngineProperties.RuleMemo properties;
+    private final RuleMemo sharedMemo;
+
+    public RuleMemoization(final ValidationEngineProperties validationEngineProperties,
+        final ValidationMetrics validationMetrics) {
+        this.properties = validationEngineProperties.getRuleMemo();
+        if (properties.isEnabled() && properties.isShared()) {
+            final BoundedCache<Key, Boolean> sharedValues = new BoundedCache<>(properties.getMaxSize());
+            validationMetrics.bindCache("rule-memo", sharedValues);
+            this.sharedMemo = RuleMemo.shared(sharedValues);
+        } else {
+            this.sharedMemo = null;
+        }
+    }
+
+    RuleMemo open() {
+        if (!properties.isEnabled()) {
+            return RuleMemo.DISABLED;
+        }
+        return sharedMemo != null ? sharedMemo : RuleMemo.perValidation();
+    }
+}
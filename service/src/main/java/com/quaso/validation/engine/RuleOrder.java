@@ -0,0 +1,87 @@
+package com.quaso.validation.engine;
+
+import com.quaso.validation.engine.config.model.RuleConfiguration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Adaptive evaluation order of the rules of one field or class in fail fast mode. Rules are sorted by their mean
+ * evaluation time divided by their failure rate, which minimizes expected cost of finding the first failure of
+ * independent rules. A fixed rule ({@link OrderDependentRule}) keeps its configured position and no rule is moved
+ * across it. The order is recomputed from {@link RuleStats} on average once per reorder interval validations, each
+ * validation triggers it with probability 1 / interval, so validating threads share no counter.
+ */
+final class RuleOrder {
+
+    private final RuleConfiguration[] rules;
+    private final RuleStats[] ruleStats;
+    private final int fixedRuleIndex;
+    private final int reorderInterval;
+
+    private volatile int[] order;
+
+    /**
+     * @param fixedRuleIndex index of a rule keeping its position in addition to order dependent rules, -1 for none
+     */
+    RuleOrder(final RuleConfiguration[] rules, final RuleStats[] ruleStats, final int fixedRuleIndex,
+        final int reorderInterval) {
+        this.rules = rules;
+        this.ruleStats = ruleStats;
+        this.fixedRuleIndex = fixedRuleIndex;
+        this.reorderInterval = Math.max(1, reorderInterval);
+        final int[] configuredOrder = new int[rules.length];
+        for (int i = 0; i < configuredOrder.length; i++) {
+            configuredOrder[i] = i;
+        }
+        this.order = configuredOrder;
+    }
+
+    /**
+     * @return indexes of rules in the order of evaluation
+     */
+    int[] next() {
+        if (ThreadLocalRandom.current().nextInt(reorderInterval) == 0) {
+            // concurrent reorders compute the same order from slightly different statistics, the last one wins
+            order = computeOrder();
+        }
+        return order;
+    }
+
+    private int[] computeOrder() {
+        final int[] result = new int[rules.length];
+        final List<Integer> segment = new ArrayList<>();
+        int position = 0;
+        for (int i = 0; i <= rules.length; i++) {
+            if (i == rules.length || i == fixedRuleIndex || rules[i] instanceof OrderDependentRule) {
+                segment.sort(comparator(segment));
+                for (final Integer index : segment) {
+                    result[position++] = index;
+                }
+                segment.clear();
+                if (i < rules.length) {
+                    result[position++] = i;
+                }
+            } else {
+                segment.add(i);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Costs are compared only when all rules of the segment were timed, otherwise only failure rates.
+     */
+    private Comparator<Integer> comparator(final List<Integer> segment) {
+        final boolean timed = segment.stream().allMatch(index -> ruleStats[index].getMeanNanos() > 0);
+        final double[] scores = new double[rules.length];
+        for (final Integer index : segment) {
+            final RuleStats stats = ruleStats[index];
+            final double failureRate = (stats.getFailures() + 1) / (stats.getEvaluations() + 2);
+            scores[index] = (timed ? stats.getMeanNanos() : 1) / failureRate;
+        }
+        // stable sort keeps configured order of rules with the same score
+        return Comparator.comparingDouble(index -> scores[index]);
+    }
+}
@@ -0,0 +1,66 @@
+package com.quaso.validation.engine;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Evaluation statistics of one rule. Every evaluation is counted, but only a sample of evaluations is timed, so the
+ * total time is an estimate extrapolated from the sample.
+ */
+final class RuleStats {
+
+    static final RuleStats DISABLED = new RuleStats(false, 0);
+
+    private final boolean enabled;
+    private final int sampleRate;
+    private final LongAdder evaluations = new LongAdder();
+    private final LongAdder failures = new LongAdder();
+    private final LongAdder sampledEvaluations = new LongAdder();
+    private final LongAdder sampledNanos = new LongAdder();
+
+    RuleStats(final boolean enabled, final int sampleRate) {
+        this.enabled = enabled;
+        this.sampleRate = sampleRate;
+    }
+
+    /**
+     * @return whether the next evaluation should be timed
+     */
+    boolean sample() {
+        return sampleRate > 0 && (sampleRate == 1 || ThreadLocalRandom.current().nextInt(sampleRate) == 0);
+    }
+
+    void record(final boolean failed) {
+        if (enabled) {
+            evaluations.increment();
+            if (failed) {
+                failures.increment();
+            }
+        }
+    }
+
+    void recordTime(final long nanos) {
+        sampledEvaluations.increment();
+        sampledNanos.add(nanos);
+    }
+
+    double getEvaluations() {
+        return evaluations.sum();
+    }
+
+    double getFailures() {
+        return failures.sum();
+    }
+
+    /**
+     * @return mean evaluation time in nanoseconds, 0 when no evaluation was timed yet
+     */
+    double getMeanNanos() {
+        final long sampled = sampledEvaluations.sum();
+        return sampled == 0 ? 0 : (double) sampledNanos.sum() / sampled;
+    }
+
+    double getEstimatedTotalNanos() {
+        return getMeanNanos() * evaluations.sum();
+    }
+}
@@ -1,25 +1,37 @@
 package com.quaso.validation.engine;
 
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.quaso.validation.engine.ValidationPlan.ChildStep;
+import com.quaso.validation.engine.ValidationPlan.FieldStep;
 import com.quaso.validation.engine.config.ApiScannerConfiguration;
 import com.quaso.validation.engine.config.ClassDetails;
-import com.quaso.validation.engine.config.FieldDetails;
-import com.quaso.validation.engine.config.ValidationConfigService;
 import com.quaso.validation.engine.config.ValidationContext;
-import com.quaso.validation.engine.config.model.ClassConfiguration;
-import com.quaso.validation.engine.config.model.FieldConfiguration;
 import com.quaso.validation.engine.config.model.RuleConfiguration;
+import com.quaso.validation.engine.config.properties.ValidationEngineProperties;
 import com.quaso.validation.engine.config.properties.ValidationProperties;
 import com.quaso.validation.exception.NoConfigException;
 import com.quaso.validation.exception.ValidationFailFastException;
-import com.quaso.validation.utils.ReflectionUtils;
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
-import java.util.Map.Entry;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
 import lombok.RequiredArgsConstructor;
+import lombok.Value;
 import lombok.extern.slf4j.Slf4j;
-import org.apache.commons.lang3.StringUtils;
 import org.springframework.http.HttpMethod;
 import org.springframework.stereotype.Component;
 
@@ -29,208 +41,672 @@ import org.springframework.stereotype.Component;
 public class ValidationEngine {
 
     private final ValidationProperties validationProperties;
-    private final ValidationConfigService validationConfigService;
     private final ApiScannerConfiguration apiScannerConfiguration;
+    private final ValidationPlanCache validationPlanCache;
+    private final ParallelValidationExecutor parallelValidationExecutor;
+    private final ValidationTracing validationTracing;
+    private final ValidationMetrics validationMetrics;
+    private final RuleMemoization ruleMemoization;
+    private final AsyncValidationExecutor asyncValidationExecutor;
+    private final ValidationEngineProperties validationEngineProperties;
 
     public List<ValidationErrorResponse> validate(final Object request, final HttpMethod httpMethod,
         final String allianceCode, final String partnerCode) {
+        return validate(request, httpMethod, allianceCode, partnerCode, false);
+    }
+
+    /**
+     * @param trace log validation trace of this request regardless of the configured traced tenants
+     */
+    public List<ValidationErrorResponse> validate(final Object request, final HttpMethod httpMethod,
+        final String allianceCode, final String partnerCode, final boolean trace) {
+        final ValidationPlan validationPlan = findPlan(pinSnapshot(), request.getClass(), httpMethod,
+            allianceCode, partnerCode);
+        return validate(request, validationPlan, httpMethod, allianceCode, partnerCode, trace, FieldChanges.ALL);
+    }
+
+    /**
+     * Validates again only the rules affected by changed fields: rules of the changed fields, class rules of objects
+     * with a changed field, rules of changed objects and list elements as a whole, and class rules whose input
+     * refers to a changed field of their parents. Dependencies of rules are known only from their inputs.
+     *
+     * @param changedFields paths of changed fields relative to the request, e.g. {@code customer.address.city},
+     * {@code items[2].sku} (list index counted from 0) or {@code items}
+     * @return errors of the evaluated rules; errors of the other rules found by the previous validation still apply
+     */
+    public List<ValidationErrorResponse> revalidateFields(final Object request, final Collection<String> changedFields,
+        final HttpMethod httpMethod, final String allianceCode, final String partnerCode) {
+        final ValidationPlan validationPlan = findPlan(pinSnapshot(), request.getClass(), httpMethod,
+            allianceCode, partnerCode);
+        return validate(request, validationPlan, httpMethod, allianceCode, partnerCode, false,
+            FieldChanges.parse(changedFields));
+    }
+
+    /**
+     * Validates again only the rules affected by differences between the previously validated request and its new
+     * version, see {@link #revalidateFields}. Only fields read by the validation are compared.
+     *
+     * @return errors of the evaluated rules; errors of the other rules found by the previous validation still apply
+     */
+    public List<ValidationErrorResponse> revalidate(final Object previousRequest, final Object request,
+        final HttpMethod httpMethod, final String allianceCode, final String partnerCode) {
+        final ValidationPlan validationPlan = findPlan(pinSnapshot(), request.getClass(), httpMethod,
+            allianceCode, partnerCode);
+        if (validationPlan.isEmpty()) {
+            return Collections.emptyList();
+        }
+        return validate(request, validationPlan, httpMethod, allianceCode, partnerCode, false,
+            FieldChanges.diff(validationPlan.getRoot(), previousRequest, request));
+    }
+
+    /**
+     * Validates request while it is parsed from JSON. Fields of the request are validated as soon as they are read
+     * and elements of its lists one by one, without keeping them unless class rules of the request or inputs of any
+     * rule may read them. Lists whose elements refer to fields of the request not read yet, or to the list itself,
+     * are validated once the request is read. In fail fast mode parsing stops on the first error. Request types
+     * without default constructor are bound completely before validation.
+     *
+     * @param parser parser positioned before or at the start of the request object
+     * @return validation errors, in the order of the JSON document
+     */
+    public List<ValidationErrorResponse> validate(final JsonParser parser, final Class<?> requestType,
+        final HttpMethod httpMethod, final String allianceCode, final String partnerCode) throws IOException {
+        final ValidationPlan validationPlan = findPlan(pinSnapshot(), requestType, httpMethod, allianceCode,
+            partnerCode);
+        if (validationPlan.isEmpty()) {
+            return Collections.emptyList();
+        }
+        try {
+            return validate(requestType, httpMethod, allianceCode, partnerCode, false,
+                (run, errors) -> validateJson(run, parser, requestType, validationPlan.getRoot(), errors));
+        } catch (final UncheckedIOException ex) {
+            throw ex.getCause();
+        }
+    }
+
+    /**
+     * Like {@link #validate(Object, HttpMethod, String, String)}, but never blocks the calling thread, e.g. an event
+     * loop. Configuration missing in the cache is loaded asynchronously, once for all concurrent callers, and the
+     * request is validated on a bounded executor, see {@code validation.engine.async}. When the executor is
+     * saturated, the result completes exceptionally with {@link java.util.concurrent.RejectedExecutionException}.
+     */
+    public CompletableFuture<List<ValidationErrorResponse>> validateAsync(final Object request,
+        final HttpMethod httpMethod, final String allianceCode, final String partnerCode) {
+        final ConfigSnapshot snapshot = pinSnapshot();
         final Class<?> requestType = request.getClass();
-        final ClassDetails classDetails = apiScannerConfiguration.findConfigByRequestType(requestType);
+        final ClassDetails classDetails;
+        try {
+            classDetails = findClassDetails(snapshot, requestType);
+        } catch (final IllegalArgumentException ex) {
+            return CompletableFuture.failedFuture(ex);
+        }
+        return validationPlanCache.findClassConfigurationListAsync(snapshot.getConfigVersion(), requestType,
+            httpMethod, allianceCode, partnerCode, asyncValidationExecutor)
+            .thenApplyAsync(classConfigurationList -> {
+                final ValidationPlan validationPlan = validationPlanCache.findPlan(snapshot.getConfigVersion(),
+                    requestType, classDetails, httpMethod, allianceCode, partnerCode,
+                    classConfigurationList.orElse(null));
+                return validate(request, validationPlan, httpMethod, allianceCode, partnerCode, false,
+                    FieldChanges.ALL);
+            }, asyncValidationExecutor);
+    }
+
+    /**
+     * Validates all requests of a batch. Validation plan is resolved once for every distinct request type, fail fast
+     * applies to every request separately. Large batches are validated in parallel when parallel validation is
+     * enabled. A request which cannot be validated does not abort the batch, its result holds the failure instead.
+     *
+     * @return result of every request, in the order of requests
+     */
+    public List<BatchValidationResult> validateAll(final Collection<?> requests, final HttpMethod httpMethod,
+        final String allianceCode, final String partnerCode) {
+        final List<?> requestList = requests instanceof List ? (List<?>) requests : new ArrayList<>(requests);
+        // resolved upfront from one configuration snapshot, so the maps are only read when validating in parallel
+        final ConfigSnapshot snapshot = pinSnapshot();
+        final Map<Class<?>, ValidationPlan> validationPlans = new HashMap<>();
+        final Map<Class<?>, RuntimeException> planFailures = new HashMap<>();
+        for (final Object request : requestList) {
+            final Class<?> requestType = request.getClass();
+            if (validationPlans.containsKey(requestType) || planFailures.containsKey(requestType)) {
+                continue;
+            }
+            try {
+                validationPlans.put(requestType, findPlan(snapshot, requestType, httpMethod, allianceCode,
+                    partnerCode));
+            } catch (final RuntimeException ex) {
+                log.warn("Requests of type {} in the batch cannot be validated", requestType.getName(), ex);
+                planFailures.put(requestType, ex);
+            }
+        }
+        if (!parallelValidationExecutor.isParallel(requestList.size())) {
+            return validateAll(requestList, 0, requestList.size(), validationPlans, planFailures, httpMethod,
+                allianceCode, partnerCode);
+        }
+        final int chunkSize = parallelValidationExecutor.getChunkSize();
+        final List<Callable<List<BatchValidationResult>>> tasks = new ArrayList<>();
+        for (int from = 0; from < requestList.size(); from += chunkSize) {
+            final int chunkFrom = from;
+            final int chunkTo = Math.min(from + chunkSize, requestList.size());
+            tasks.add(() -> validateAll(requestList, chunkFrom, chunkTo, validationPlans, planFailures, httpMethod,
+                allianceCode, partnerCode));
+        }
+        final List<BatchValidationResult> result = new ArrayList<>(requestList.size());
+        parallelValidationExecutor.invokeAll(tasks).forEach(result::addAll);
+        return result;
+    }
+
+    private List<BatchValidationResult> validateAll(final List<?> requests, final int from, final int to,
+        final Map<Class<?>, ValidationPlan> validationPlans, final Map<Class<?>, RuntimeException> planFailures,
+        final HttpMethod httpMethod, final String allianceCode, final String partnerCode) {
+        final List<BatchValidationResult> result = new ArrayList<>(to - from);
+        for (int i = from; i < to; i++) {
+            final Object request = requests.get(i);
+            final ValidationPlan validationPlan = validationPlans.get(request.getClass());
+            if (validationPlan == null) {
+                result.add(BatchValidationResult.failed(planFailures.get(request.getClass())));
+                continue;
+            }
+            try {
+                result.add(BatchValidationResult.validated(validate(request, validationPlan, httpMethod,
+                    allianceCode, partnerCode, false, FieldChanges.ALL)));
+            } catch (final RuntimeException ex) {
+                log.error("Request {} of the batch cannot be validated", i, ex);
+                result.add(BatchValidationResult.failed(ex));
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Pins configuration used by one validation call, reloads published meanwhile apply to the next call.
+     */
+    private ConfigSnapshot pinSnapshot() {
+        return new ConfigSnapshot(apiScannerConfiguration.getKnownClasses(), validationPlanCache.getConfigVersion());
+    }
+
+    private ValidationPlan findPlan(final ConfigSnapshot snapshot, final Class<?> requestType,
+        final HttpMethod httpMethod, final String allianceCode, final String partnerCode) {
+        return validationPlanCache.findPlan(snapshot.getConfigVersion(), requestType,
+            findClassDetails(snapshot, requestType), httpMethod, allianceCode, partnerCode);
+    }
+
+    private static ClassDetails findClassDetails(final ConfigSnapshot snapshot, final Class<?> requestType) {
+        final ClassDetails classDetails = snapshot.getKnownClasses().get(requestType);
         if (classDetails == null) {
             // request class is not recognized in ValidationApi
             throw new IllegalArgumentException(
                 "Request type " + requestType.getCanonicalName() + " is not known and cannot be validated");
         }
-        try {
-            final List<ClassConfiguration> classConfigurationList = validationConfigService
-                .findClassConfigurationList(request.getClass().getSimpleName(), httpMethod, allianceCode, partnerCode);
+        return classDetails;
+    }
+
+    private List<ValidationErrorResponse> validate(final Object request, final ValidationPlan validationPlan,
+        final HttpMethod httpMethod, final String allianceCode, final String partnerCode, final boolean trace,
+        final FieldChanges changes) {
+        if (validationPlan.isEmpty() || changes.isEmpty()) {
+            return Collections.emptyList();
+        }
+        return validate(request.getClass(), httpMethod, allianceCode, partnerCode, trace, (run, errors) -> {
             // iterate through request and identify classes
             final ValidationContext validationContext = new ValidationContext(httpMethod, request);
-            return validate(validationContext, classDetails, null, classConfigurationList);
+            if (changes.isAll()) {
+                validate(run, validationContext, validationPlan.getRoot(), null, null, errors);
+            } else {
+                revalidate(run, validationContext, validationPlan.getRoot(), null, null, changes,
+                    Collections.emptySet(), errors);
+            }
+        });
+    }
+
+    /**
+     * Runs validation with tracing and metrics, and converts failures to error responses.
+     */
+    private List<ValidationErrorResponse> validate(final Class<?> requestType, final HttpMethod httpMethod,
+        final String allianceCode, final String partnerCode, final boolean trace, final PlanValidation validation) {
+        final ValidationTrace validationTrace = validationTracing
+            .open(requestType, httpMethod, allianceCode, partnerCode, trace);
+        final long start = validationMetrics.isEnabled() ? System.nanoTime() : 0L;
+        try {
+            final ErrorSink errors = ErrorSink.create(validationEngineProperties.getErrors());
+            validation.validate(new ValidationRun(httpMethod, validationTrace, ruleMemoization.open()), errors);
+            final List<ValidationFailure> failures = errors.getFailures();
+            final List<ValidationErrorResponse> result = new ArrayList<>(failures.size());
+            failures.forEach(failure -> result.add(failure.toResponse()));
+            validationTrace.finish(result.size());
+            validationMetrics.recordRequest(requestType, allianceCode, partnerCode, System.nanoTime() - start,
+                result, false);
+            return result;
         } catch (final NoConfigException ex) {
             return Collections.emptyList();
         } catch (final ValidationFailFastException ex) {
             if (ex.getValidationErrorResponse().getError().getCode() == ValidationErrorCode.UnexpectedError) {
                 log.error("Unexpected validation error", ex);
             }
-            return Collections.singletonList(ex.getValidationErrorResponse());
+            validationTrace.finish(1);
+            final List<ValidationErrorResponse> result = Collections.singletonList(ex.getValidationErrorResponse());
+            validationMetrics.recordRequest(requestType, allianceCode, partnerCode, System.nanoTime() - start,
+                result, true);
+            return result;
         }
     }
 
-    private List<ValidationErrorResponse> validate(final ValidationContext validationContext,
-        final ClassDetails classDetails, final FieldDetails fieldDetails,
-        final List<ClassConfiguration> classConfigurationList) throws ValidationFailFastException {
+    private void validate(final ValidationRun run, final ValidationContext validationContext,
+        final ValidationPlan.Node planNode, final ErrorPath parentPath, final Integer positionInList,
+        final ErrorSink errors) throws ValidationFailFastException {
         final Object classInstance = validationContext.getHierarchyStack().peek();
-        if (classInstance == null) {
-            return Collections.emptyList();
+        if (classInstance == null || errors.isFull()) {
+            return;
         }
-        final List<ValidationErrorResponse> result = new ArrayList<>();
+        final ErrorPath path = parentPath == null ? ErrorPath.root(classInstance.getClass())
+            : parentPath.child(classInstance.getClass(), positionInList);
 
-        log.debug("{}Validating class {}", indentLog(validationContext.size() - 1),
-            classInstance.getClass().getSimpleName());
-
-        try {
-            // find class validation configuration
-            final ClassConfiguration classConfiguration;
-            if (fieldDetails == null) {
-                classConfiguration = validationConfigService
-                    .findClassConfiguration(classInstance.getClass(), classConfigurationList);
-            } else {
-                classConfiguration = validationConfigService
-                    .findClassConfiguration(fieldDetails, classConfigurationList);
-            }
+        final ValidationTrace trace = run.getTrace();
+        trace.enterClass(validationContext.size() - 1, classInstance.getClass());
 
+        if (planNode.hasConfiguration()) {
             // validate rules for the class
-            validateClassRules(validationContext, classInstance, result, classConfiguration);
+            validateClassRules(run, validationContext, classInstance, path, errors, planNode.getClassRules(),
+                planNode.getClassRuleStats(), planNode.getClassRuleOrder());
 
             // validate rule for the fields in class
-            validateFieldRules(validationContext, classInstance, result, classConfiguration);
-        } catch (final NoConfigException ex) {
-            // ignore
-            log.debug("{}No config", indentLog(validationContext.size()));
+            validateFieldRules(run, validationContext, classInstance, path, errors, planNode.getFieldSteps());
+        } else {
+            trace.noConfig(validationContext.size());
         }
 
         // validate sub-classes
-        validateSubclasses(validationContext, classDetails, classConfigurationList, classInstance, result);
+        validateSubclasses(run, validationContext, planNode.getChildren(), classInstance, path, errors);
 
-        log.debug("{}Validation class {} finished", indentLog(validationContext.size() - 1, true),
-            classInstance.getClass().getSimpleName());
+        trace.exitClass(validationContext.size() - 1, classInstance.getClass());
+    }
 
-        return result;
+    private void validateJson(final ValidationRun run, final JsonParser parser, final Class<?> requestType,
+        final ValidationPlan.Node planNode, final ErrorSink errors) throws ValidationFailFastException {
+        try {
+            final JsonRequestBinding binding = JsonRequestBinding.of(parser, requestType);
+            if (parser.currentToken() == null) {
+                parser.nextToken();
+            }
+            if (!binding.isStreamable() || parser.currentToken() != JsonToken.START_OBJECT) {
+                final Object request = binding.readValue(parser);
+                if (request != null) {
+                    validate(run, new ValidationContext(run.getHttpMethod(), request), planNode, null, null, errors);
+                }
+                return;
+            }
+            validateJsonObject(run, parser, binding, requestType, planNode, errors);
+        } catch (final IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
     }
 
-    private void validateClassRules(final ValidationContext validationContext, final Object classInstance,
-        final List<ValidationErrorResponse> result, final ClassConfiguration classConfiguration)
-        throws ValidationFailFastException {
-        final List<RuleConfiguration> classRuleConfigurationList = classConfiguration
-            .getClassRuleConfigurationList();
-        if (classRuleConfigurationList != null) {
-            for (int i = 0; i < classRuleConfigurationList.size(); i++) {
-                final RuleConfiguration ruleConfiguration = classRuleConfigurationList.get(i);
-                log.debug("{}Validating class rule {}: {}", indentLog(validationContext.size() + 2), i + 1,
-                    ruleConfiguration.getLogString());
-                final Optional<ValidationErrorResponse> validationResult = validateRule(ruleConfiguration,
-                    classInstance, validationContext, classInstance, null);
-                if (validationResult.isPresent()) {
-                    result.add(validationResult.get());
+    private void validateJsonObject(final ValidationRun run, final JsonParser parser,
+        final JsonRequestBinding binding, final Class<?> requestType, final ValidationPlan.Node planNode,
+        final ErrorSink errors) throws IOException, ValidationFailFastException {
+        final DeserializationContext deserializationContext = binding.createContext(parser);
+        final Object request = binding.instantiate(deserializationContext);
+        final ValidationContext validationContext = new ValidationContext(run.getHttpMethod(), request);
+        final ErrorPath path = ErrorPath.root(requestType);
+        run.getTrace().enterClass(0, requestType);
+
+        final Map<String, FieldStep> fieldSteps = new LinkedHashMap<>();
+        if (planNode.hasConfiguration()) {
+            for (final FieldStep fieldStep : planNode.getFieldSteps()) {
+                fieldSteps.put(fieldStep.getName(), fieldStep);
+            }
+        } else {
+            run.getTrace().noConfig(1);
+        }
+        final Map<String, ChildStep> children = new HashMap<>();
+        for (final ChildStep child : planNode.getChildren()) {
+            children.put(child.getFieldDetails().getField().getName(), child);
+        }
+        final Set<String> unreadFields = new HashSet<>();
+        binding.getProperties().forEach(property -> unreadFields.add(property.getName()));
+        // children validated once the whole request is read
+        final List<ChildStep> deferredChildren = new ArrayList<>();
+
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            final String jsonName = parser.getCurrentName();
+            parser.nextToken();
+            final JsonRequestBinding.Property property =
+                binding.findProperty(parser, deserializationContext, request, jsonName);
+            if (property == null) {
+                continue;
+            }
+            final ChildStep child = children.get(property.getName());
+            // elements see only fields read before the list, not the list itself
+            final boolean streamed = child != null && child.isList() && property.isElementStreamable()
+                && parser.currentToken() == JsonToken.START_ARRAY
+                && Collections.disjoint(child.getTarget().getInputFields(), unreadFields);
+            unreadFields.remove(property.getName());
+            if (streamed) {
+                // the list is kept when rules of the request or inputs of any rule may read it, otherwise its
+                // elements are dropped once validated
+                final Collection<Object> elements = planNode.getClassRules().length > 0
+                    || fieldSteps.containsKey(property.getName())
+                    || planNode.getInputFields().contains(property.getName())
+                    ? property.createList(deserializationContext) : null;
+                int positionInList = 0;
+                while (parser.nextToken() != JsonToken.END_ARRAY) {
+                    final Object element = property.readElement(parser, deserializationContext);
+                    validateElement(run, validationContext, child, path, element, ++positionInList, errors);
+                    if (elements != null) {
+                        elements.add(element);
+                    }
                 }
+                property.set(request, elements);
+                final FieldStep fieldStep = fieldSteps.remove(property.getName());
+                if (fieldStep != null) {
+                    validateFieldRules(run, validationContext, request, path, errors, new FieldStep[] {fieldStep});
+                }
+                continue;
+            }
+            property.deserializeAndSet(parser, deserializationContext, request);
+            if (child != null) {
+                deferredChildren.add(child);
             }
+            final FieldStep fieldStep = fieldSteps.remove(property.getName());
+            if (fieldStep != null) {
+                validateFieldRules(run, validationContext, request, path, errors, new FieldStep[] {fieldStep});
+            }
+        }
+
+        if (planNode.hasConfiguration()) {
+            // fields missing in JSON
+            validateFieldRules(run, validationContext, request, path, errors,
+                fieldSteps.values().toArray(new FieldStep[0]));
+            validateClassRules(run, validationContext, request, path, errors, planNode.getClassRules(),
+                planNode.getClassRuleStats(), planNode.getClassRuleOrder());
+        }
+        for (final ChildStep child : deferredChildren) {
+            validateChild(run, validationContext, child, child.getAccessor().get(request), path, errors);
         }
+        run.getTrace().exitClass(0, requestType);
     }
 
-    private void validateFieldRules(final ValidationContext validationContext, final Object classInstance,
-        final List<ValidationErrorResponse> result, final ClassConfiguration classConfiguration)
+    private void validateClassRules(final ValidationRun run, final ValidationContext validationContext,
+        final Object classInstance, final ErrorPath path, final ErrorSink errors,
+        final RuleConfiguration[] classRules, final RuleStats[] classRuleStats, final RuleOrder classRuleOrder)
         throws ValidationFailFastException {
-        final List<FieldConfiguration> fieldConfigurationList = classConfiguration.getFieldConfigurationList();
-        if (fieldConfigurationList != null) {
-            // validate fields in class
-            for (final FieldConfiguration fieldConfiguration : fieldConfigurationList) {
-                final Object fieldValue = ReflectionUtils
-                    .getFieldValue(classInstance, fieldConfiguration.getName());
-                log.debug("{}Validating field {}", indentLog(validationContext.size()),
-                    fieldConfiguration.getName());
-                for (int i = 0; i < fieldConfiguration.getRuleConfigurationList().size(); i++) {
-                    final RuleConfiguration ruleConfiguration = fieldConfiguration.getRuleConfigurationList()
-                        .get(i);
-                    if (StringUtils.isNotEmpty(ruleConfiguration.getInput())) {
-                        throw new IllegalStateException(
-                            "Rule configuration mismatch. Cannot define 'input' field here");
-                    }
-                    log.debug("{}Validating rule {}: {}", indentLog(validationContext.size() + 2), i + 1,
-                        ruleConfiguration.getLogString());
-                    final Optional<ValidationErrorResponse> validationResult = validateRule(ruleConfiguration,
-                        fieldValue, validationContext, classInstance, fieldConfiguration);
-                    if (validationResult.isPresent()) {
-                        result.add(validationResult.get());
-                    }
+        final int[] order = findRuleOrder(classRuleOrder);
+        for (int k = 0; k < classRules.length; k++) {
+            final int i = order == null ? k : order[k];
+            final ValidationFailure validationResult = validateRule(run, classRules[i], classRuleStats[i], i + 1,
+                classInstance, validationContext, path, null);
+            if (validationResult != null) {
+                errors.add(validationResult);
+            }
+        }
+    }
+
+    private void validateFieldRules(final ValidationRun run, final ValidationContext validationContext,
+        final Object classInstance, final ErrorPath path, final ErrorSink errors,
+        final FieldStep[] fieldSteps) throws ValidationFailFastException {
+        // validate fields in class
+        for (final FieldStep fieldStep : fieldSteps) {
+            final Object fieldValue = fieldStep.getValue(classInstance);
+            run.getTrace().field(validationContext.size(), fieldStep.getName());
+            final RuleConfiguration[] rules = fieldStep.getRules();
+            final RuleStats[] ruleStats = fieldStep.getRuleStats();
+            final int[] order = findRuleOrder(fieldStep.getRuleOrder());
+            for (int k = 0; k < rules.length; k++) {
+                final int i = order == null ? k : order[k];
+                if (i == fieldStep.getInvalidRuleIndex()) {
+                    throw new IllegalStateException("Rule configuration mismatch. Cannot define 'input' field here");
+                }
+                final ValidationFailure validationResult = validateRule(run, rules[i], ruleStats[i], i + 1,
+                    fieldValue, validationContext, path, fieldStep.getName());
+                if (validationResult != null) {
+                    errors.add(validationResult);
                 }
             }
         }
     }
 
-    private void validateSubclasses(final ValidationContext validationContext, final ClassDetails classDetails,
-        final List<ClassConfiguration> classConfigurationList, final Object classInstance,
-        final List<ValidationErrorResponse> result) throws ValidationFailFastException {
-        for (final Entry<FieldDetails, ClassDetails> entry : classDetails.getFieldIds().entrySet()) {
-            final Object value = ReflectionUtils.getFieldValue(classInstance, entry.getKey().getField());
-            final List<?> collection;
-            if (value instanceof List) {
-                collection = (List<?>) value;
+    /**
+     * @return order of rules evaluation, null for the configured order
+     */
+    private int[] findRuleOrder(final RuleOrder ruleOrder) {
+        // order matters only when validation stops on the first error
+        return ruleOrder != null && validationProperties.isFailFast() ? ruleOrder.next() : null;
+    }
+
+    private void validateSubclasses(final ValidationRun run, final ValidationContext validationContext,
+        final ChildStep[] children, final Object classInstance, final ErrorPath path, final ErrorSink errors)
+        throws ValidationFailFastException {
+        for (final ChildStep child : children) {
+            validateChild(run, validationContext, child, child.getAccessor().get(classInstance), path, errors);
+        }
+    }
+
+    private void validateChild(final ValidationRun run, final ValidationContext validationContext,
+        final ChildStep child, final Object value, final ErrorPath path, final ErrorSink errors)
+        throws ValidationFailFastException {
+        if (child.isList() && value != null) {
+            final List<?> list = (List<?>) value;
+            if (parallelValidationExecutor.isParallel(list.size())) {
+                validateListInParallel(run, validationContext, child, path, list, errors);
             } else {
-                collection = Collections.singletonList(value);
+                for (int i = 0; i < list.size() && !errors.isFull(); i++) {
+                    validateElement(run, validationContext, child, path, list.get(i), i + 1, errors);
+                }
             }
-            for (int i = 0; i < collection.size(); i++) {
-                final Integer positionInList = (value instanceof List) ? (i + 1) : null;
-                if (positionInList != null) {
-                    log.debug("{}Field {} element {}", indentLog(validationContext.size() + 1),
-                        entry.getKey().getField().getName(), positionInList);
+        } else {
+            validateElement(run, validationContext, child, path, value, null, errors);
+        }
+    }
+
+    /**
+     * Like {@link #validate(ValidationRun, ValidationContext, ValidationPlan.Node, ErrorPath, Integer, ErrorSink)},
+     * but evaluates only rules affected by the changes. Objects changed as a whole are validated completely.
+     *
+     * @param changedParentFields changed fields of the objects above, rules referring to them are evaluated
+     */
+    private void revalidate(final ValidationRun run, final ValidationContext validationContext,
+        final ValidationPlan.Node planNode, final ErrorPath parentPath, final Integer positionInList,
+        final FieldChanges changes, final Set<String> changedParentFields, final ErrorSink errors)
+        throws ValidationFailFastException {
+        if (changes.isAll()) {
+            validate(run, validationContext, planNode, parentPath, positionInList, errors);
+            return;
+        }
+        final Object classInstance = validationContext.getHierarchyStack().peek();
+        if (classInstance == null || errors.isFull()) {
+            return;
+        }
+        final ErrorPath path = parentPath == null ? ErrorPath.root(classInstance.getClass())
+            : parentPath.child(classInstance.getClass(), positionInList);
+        run.getTrace().enterClass(validationContext.size() - 1, classInstance.getClass());
+
+        if (planNode.hasConfiguration()) {
+            final RuleConfiguration[] classRules = planNode.getClassRules();
+            final int[] order = findRuleOrder(planNode.getClassRuleOrder());
+            for (int k = 0; k < classRules.length; k++) {
+                final int i = order == null ? k : order[k];
+                final String inputField = planNode.getClassRuleInputFields()[i];
+                if (changes.hasFields() || inputField != null && changedParentFields.contains(inputField)) {
+                    final ValidationFailure validationResult = validateRule(run, classRules[i],
+                        planNode.getClassRuleStats()[i], i + 1, classInstance, validationContext, path, null);
+                    if (validationResult != null) {
+                        errors.add(validationResult);
+                    }
                 }
-                validationContext.getHierarchyStack().push(collection.get(i));
-                try {
-                    final List<ValidationErrorResponse> validationResult = validate(validationContext, entry.getValue(),
-                        entry.getKey(), classConfigurationList);
-                    validationResult.forEach(ver -> ver.setFieldPath(
-                        enhanceValidationErrorMessage(classInstance, ver.getFieldPath(), positionInList)));
-                    result.addAll(validationResult);
-                } catch (final ValidationFailFastException ex) {
-                    ex.getValidationErrorResponse().setFieldPath(
-                        enhanceValidationErrorMessage(classInstance, ex.getValidationErrorResponse().getFieldPath(),
-                            positionInList));
-                    throw ex;
-                } finally {
-                    validationContext.getHierarchyStack().pop();
+            }
+            final List<FieldStep> changedFieldSteps = new ArrayList<>();
+            for (final FieldStep fieldStep : planNode.getFieldSteps()) {
+                if (changes.getField(fieldStep.getName()) != null) {
+                    changedFieldSteps.add(fieldStep);
                 }
             }
+            validateFieldRules(run, validationContext, classInstance, path, errors,
+                changedFieldSteps.toArray(new FieldStep[0]));
         }
-    }
 
-    private Optional<ValidationErrorResponse> validateRule(final RuleConfiguration ruleConfiguration,
-        final Object value, final ValidationContext validationContext, final Object classInstance,
-        final FieldConfiguration fieldConfiguration) throws ValidationFailFastException {
-        final Optional<ValidationErrorResponse> validationResult = ruleConfiguration.validate(value, validationContext);
-        log.trace("{}Validation result is present: {}", indentLog(validationContext.size() + 2),
-            validationResult.isPresent());
-        ValidationErrorResponse result = null;
-        if (validationResult.isPresent()) {
-            result = validationResult.get();
-            final String fieldPath;
-            if (fieldConfiguration == null) {
-                fieldPath = classInstance.getClass().getSimpleName();
+        final Set<String> changedFields;
+        if (changes.hasFields()) {
+            changedFields = new HashSet<>(changedParentFields);
+            changedFields.addAll(changes.getFieldNames());
+        } else {
+            changedFields = changedParentFields;
+        }
+        for (final ChildStep child : planNode.getChildren()) {
+            final FieldChanges childChanges = changes.getField(child.getFieldDetails().getField().getName());
+            final boolean dependent = !Collections.disjoint(child.getTarget().getInputFields(), changedFields);
+            if (childChanges == null && !dependent) {
+                continue;
+            }
+            final Object value = child.getAccessor().get(classInstance);
+            if (childChanges != null && childChanges.isAll()) {
+                validateChild(run, validationContext, child, value, path, errors);
+            } else if (child.isList() && value != null) {
+                final List<?> list = (List<?>) value;
+                for (int i = 0; i < list.size() && !errors.isFull(); i++) {
+                    final FieldChanges elementChanges = childChanges == null ? null : childChanges.getElement(i);
+                    if (elementChanges != null || dependent) {
+                        revalidateElement(run, validationContext, child, path, list.get(i), i + 1,
+                            elementChanges == null ? FieldChanges.NONE : elementChanges, changedFields, errors);
+                    }
+                }
             } else {
-                fieldPath = String
-                    .format("%s.%s", classInstance.getClass().getSimpleName(), fieldConfiguration.getName());
+                revalidateElement(run, validationContext, child, path, value, null,
+                    childChanges == null ? FieldChanges.NONE : childChanges, changedFields, errors);
             }
-            log.debug("{}Validation failure message: {} {}", indentLog(validationContext.size() + 2),
-                fieldPath, validationResult.get().getFullMessage());
+        }
+
+        run.getTrace().exitClass(validationContext.size() - 1, classInstance.getClass());
+    }
 
-            result.setFieldPath(fieldPath);
-            if (validationProperties.isFailFast()
-                || validationResult.get().getError().getCode() == ValidationErrorCode.UnexpectedError) {
-                throw new ValidationFailFastException(result);
+    private void revalidateElement(final ValidationRun run, final ValidationContext validationContext,
+        final ChildStep child, final ErrorPath path, final Object element, final Integer positionInList,
+        final FieldChanges changes, final Set<String> changedParentFields, final ErrorSink errors)
+        throws ValidationFailFastException {
+        validationContext.getHierarchyStack().push(element);
+        try {
+            revalidate(run, validationContext, child.getTarget(), path, positionInList, changes, changedParentFields,
+                errors);
+        } finally {
+            validationContext.getHierarchyStack().pop();
+        }
+    }
+
+    private void validateElement(final ValidationRun run, final ValidationContext validationContext,
+        final ChildStep child, final ErrorPath path, final Object element, final Integer positionInList,
+        final ErrorSink errors) throws ValidationFailFastException {
+        if (positionInList != null) {
+            run.getTrace().listElement(validationContext.size() + 1, child.getFieldDetails().getField().getName(),
+                positionInList);
+        }
+        validationContext.getHierarchyStack().push(element);
+        try {
+            validate(run, validationContext, child.getTarget(), path, positionInList, errors);
+        } finally {
+            validationContext.getHierarchyStack().pop();
+        }
+    }
+
+    /**
+     * Validates list elements in chunks on {@link ParallelValidationExecutor}, every chunk with its own copy of
+     * validation context and fork of the error sink. Results are merged in list order, so they are the same as in
+     * sequential validation, unless the maximal number of errors is reached: chunks share it, so which errors are
+     * kept depends on which chunk found them first. In case of fail fast, only elements before the failed one are
+     * validated further.
+     */
+    private void validateListInParallel(final ValidationRun run, final ValidationContext validationContext,
+        final ChildStep child, final ErrorPath path, final List<?> list, final ErrorSink errors)
+        throws ValidationFailFastException {
+        final AtomicInteger failedIndex = new AtomicInteger(Integer.MAX_VALUE);
+        final int chunkSize = parallelValidationExecutor.getChunkSize();
+        final List<Callable<ListChunkResult>> tasks = new ArrayList<>();
+        for (int from = 0; from < list.size(); from += chunkSize) {
+            final int chunkFrom = from;
+            final int chunkTo = Math.min(from + chunkSize, list.size());
+            final ValidationContext chunkContext = forkContext(run, validationContext);
+            final ErrorSink chunkErrors = errors.fork();
+            tasks.add(() -> validateListChunk(run, chunkContext, child, path, list, chunkFrom, chunkTo,
+                failedIndex, chunkErrors));
+        }
+        for (final ListChunkResult chunkResult : parallelValidationExecutor.invokeAll(tasks)) {
+            errors.addAll(chunkResult.getErrors());
+            if (chunkResult.getFailFastException() != null) {
+                throw chunkResult.getFailFastException();
             }
         }
-        return Optional.ofNullable(result);
     }
 
-    private String enhanceValidationErrorMessage(final Object obj, final String msg, final Integer positionInList) {
-        if (positionInList == null) {
-            return String.format("%s.%s", obj.getClass().getSimpleName(), msg);
-        } else {
-            return String.format("%s.[%d]%s", obj.getClass().getSimpleName(), positionInList, msg);
+    private ListChunkResult validateListChunk(final ValidationRun run, final ValidationContext validationContext,
+        final ChildStep child, final ErrorPath path, final List<?> list, final int from, final int to,
+        final AtomicInteger failedIndex, final ErrorSink errors) {
+        for (int i = from; i < to && i < failedIndex.get() && !errors.isFull(); i++) {
+            try {
+                validateElement(run, validationContext, child, path, list.get(i), i + 1, errors);
+            } catch (final ValidationFailFastException ex) {
+                failedIndex.accumulateAndGet(i, Math::min);
+                return new ListChunkResult(errors, ex);
+            } catch (final RuntimeException ex) {
+                failedIndex.accumulateAndGet(i, Math::min);
+                throw ex;
+            }
         }
+        return new ListChunkResult(errors, null);
     }
 
-    private String indentLog(final int size) {
-        return indentLog(size, false);
+    private ValidationContext forkContext(final ValidationRun run, final ValidationContext validationContext) {
+        final Iterator<?> iterator = validationContext.getHierarchyStack().descendingIterator();
+        final ValidationContext result = new ValidationContext(run.getHttpMethod(), iterator.next());
+        while (iterator.hasNext()) {
+            result.getHierarchyStack().push(iterator.next());
+        }
+        return result;
     }
 
-    private String indentLog(final int size, final boolean finishLevel) {
-        final String result;
-        if (finishLevel) {
-            result = String.format("%s\\- ", StringUtils.repeat("|  ", size));
+    private ValidationFailure validateRule(final ValidationRun run, final RuleConfiguration ruleConfiguration,
+        final RuleStats ruleStats, final int ruleIndex, final Object value, final ValidationContext validationContext,
+        final ErrorPath path, final String fieldName) throws ValidationFailFastException {
+        final RuleMemo ruleMemo = run.getRuleMemo();
+        final boolean memoizable = ruleMemo.isMemoizable(ruleConfiguration, value);
+        if (memoizable && ruleMemo.isValid(ruleConfiguration, value)) {
+            run.getTrace().rule(validationContext.size() + 2, fieldName == null, ruleIndex, ruleConfiguration, null);
+            return null;
+        }
+        final Optional<ValidationErrorResponse> validationResult;
+        if (ruleStats.sample()) {
+            final long start = System.nanoTime();
+            validationResult = ruleConfiguration.validate(value, validationContext);
+            ruleStats.recordTime(System.nanoTime() - start);
         } else {
-            result = String.format("%s+- ", StringUtils.repeat("|  ", size));
+            validationResult = ruleConfiguration.validate(value, validationContext);
+        }
+        ruleStats.record(validationResult.isPresent());
+        final ValidationFailure result = validationResult
+            .map(validationErrorResponse -> new ValidationFailure(validationErrorResponse, path, fieldName,
+                ruleConfiguration))
+            .orElse(null);
+        run.getTrace().rule(validationContext.size() + 2, fieldName == null, ruleIndex, ruleConfiguration, result);
+        if (result == null) {
+            if (memoizable) {
+                ruleMemo.putValid(ruleConfiguration, value);
+            }
+            return null;
+        }
+        if (validationProperties.isFailFast()
+            || validationResult.get().getError().getCode() == ValidationErrorCode.UnexpectedError) {
+            // fail fast error leaves validation immediately, so its path is rendered now
+            throw new ValidationFailFastException(result.toResponse());
         }
         return result;
     }
+
+    @FunctionalInterface
+    private interface PlanValidation {
+
+        void validate(ValidationRun run, ErrorSink errors) throws ValidationFailFastException;
+    }
+
+    @Value
+    private static class ListChunkResult {
+
+        private final ErrorSink errors;
+        private final ValidationFailFastException failFastException;
+    }
 }
@@ -0,0 +1,27 @@
+package com.quaso.validation.engine;
+
+import com.quaso.validation.engine.config.model.RuleConfiguration;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Validation error collected during validation. Its field path is rendered only when converted to
+ * {@link ValidationErrorResponse}.
+ */
+@Getter(AccessLevel.PACKAGE)
+@RequiredArgsConstructor(access = AccessLevel.PACKAGE)
+final class ValidationFailure {
+
+    private final ValidationErrorResponse validationErrorResponse;
+    private final ErrorPath path;
+    // null for class rules
+    private final String fieldName;
+    // failed rule, failures of the same rule are deduplicated
+    private final RuleConfiguration ruleConfiguration;
+
+    ValidationErrorResponse toResponse() {
+        validationErrorResponse.setFieldPath(path.render(fieldName));
+        return validationErrorResponse;
+    }
+}
@@ -0,0 +1,150 @@
+package com.quaso.validation.engine;
+
+import com.quaso.validation.engine.config.ClassConfigurationCache;
+import com.quaso.validation.engine.config.model.RuleConfiguration;
+import com.quaso.validation.engine.config.properties.ValidationEngineProperties;
+import com.quaso.validation.utils.BoundedCache;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.FunctionTimer;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import lombok.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Publishes validation metrics to Micrometer: latency per request type and tenant, evaluations and sampled time per
+ * rule, errors per error code, fail fast trips and configuration cache hits. Meters are registered once and updated
+ * without locks. Without {@link MeterRegistry} in the context, or with {@code validation.engine.metrics.enabled}
+ * off, nothing is recorded.
+ */
+@Component
+public class ValidationMetrics {
+
+    // tag of errors without error code
+    private static final String NO_ERROR_CODE = "none";
+
+    private final MeterRegistry meterRegistry;
+    private final ValidationEngineProperties.Metrics properties;
+    private final Map<RequestKey, Timer> requestTimers = new ConcurrentHashMap<>();
+    private final Map<RuleKey, RuleStats> ruleStats = new ConcurrentHashMap<>();
+    // key is the code tag
+    private final Map<String, Counter> errorCounters = new ConcurrentHashMap<>();
+    private final Counter failFastCounter;
+    private final boolean adaptiveRuleOrdering;
+
+    public ValidationMetrics(final Optional<MeterRegistry> meterRegistry,
+        final ValidationEngineProperties validationEngineProperties,
+        final ClassConfigurationCache classConfigurationCache) {
+        this.properties = validationEngineProperties.getMetrics();
+        this.meterRegistry = properties.isEnabled() ? meterRegistry.orElse(null) : null;
+        this.failFastCounter = this.meterRegistry == null ? null : Counter.builder("validation.failfast")
+            .description("Validations stopped on the first error")
+            .register(this.meterRegistry);
+        this.adaptiveRuleOrdering = validationEngineProperties.getRuleOrdering().isAdaptive();
+        bindCache("configurations", classConfigurationCache.getCache());
+    }
+
+    boolean isEnabled() {
+        return meterRegistry != null;
+    }
+
+    void bindCache(final String name, final BoundedCache<?, ?> cache) {
+        if (meterRegistry == null) {
+            return;
+        }
+        FunctionCounter.builder("validation.cache.hits", cache, BoundedCache::getHitCount)
+            .tag("cache", name)
+            .register(meterRegistry);
+        FunctionCounter.builder("validation.cache.misses", cache, BoundedCache::getMissCount)
+            .tag("cache", name)
+            .register(meterRegistry);
+        Gauge.builder("validation.cache.size", cache, BoundedCache::size)
+            .tag("cache", name)
+            .register(meterRegistry);
+    }
+
+    /**
+     * Returns statistics shared by all plans evaluating the same rule of the same field. They are collected when
+     * metrics are published or rules are ordered adaptively. Called when a plan is compiled, never during validation.
+     *
+     * @param fieldName null for class rules
+     */
+    RuleStats ruleStats(final Class<?> type, final String fieldName, final RuleConfiguration ruleConfiguration) {
+        if (meterRegistry == null && !adaptiveRuleOrdering) {
+            return RuleStats.DISABLED;
+        }
+        return ruleStats.computeIfAbsent(
+            new RuleKey(type.getSimpleName(), fieldName == null ? "" : fieldName,
+                String.valueOf(ruleConfiguration.getLogString())),
+            this::registerRule);
+    }
+
+    private RuleStats registerRule(final RuleKey key) {
+        final RuleStats result = new RuleStats(true, properties.getRuleSampleRate());
+        if (meterRegistry == null) {
+            return result;
+        }
+        FunctionCounter.builder("validation.rule.failures", result, RuleStats::getFailures)
+            .tags("type", key.getType(), "field", key.getField(), "rule", key.getRule())
+            .register(meterRegistry);
+        FunctionTimer.builder("validation.rule", result, stats -> (long) stats.getEvaluations(),
+            RuleStats::getEstimatedTotalNanos, TimeUnit.NANOSECONDS)
+            .description("Rule evaluations and their total time estimated from sampled evaluations")
+            .tags("type", key.getType(), "field", key.getField(), "rule", key.getRule())
+            .register(meterRegistry);
+        return result;
+    }
+
+    void recordRequest(final Class<?> requestType, final String allianceCode, final String partnerCode,
+        final long nanos, final List<ValidationErrorResponse> errors, final boolean failFast) {
+        if (meterRegistry == null) {
+            return;
+        }
+        requestTimers.computeIfAbsent(new RequestKey(requestType, allianceCode, partnerCode), this::registerRequest)
+            .record(nanos, TimeUnit.NANOSECONDS);
+        for (final ValidationErrorResponse error : errors) {
+            final ValidationErrorCode code = error.getError() == null ? null : error.getError().getCode();
+            errorCounters.computeIfAbsent(code == null ? NO_ERROR_CODE : code.name(),
+                tag -> Counter.builder("validation.errors")
+                    .tag("code", tag)
+                    .register(meterRegistry))
+                .increment();
+        }
+        if (failFast) {
+            failFastCounter.increment();
+        }
+    }
+
+    private Timer registerRequest(final RequestKey key) {
+        return Timer.builder("validation.requests")
+            .description("Validation of one request")
+            .tags("type", key.getRequestType().getSimpleName(),
+                "alliance", String.valueOf(key.getAllianceCode()),
+                "partner", String.valueOf(key.getPartnerCode()))
+            .publishPercentileHistogram(properties.isPercentileHistogram())
+            .register(meterRegistry);
+    }
+
+    @Value
+    private static class RequestKey {
+
+        private final Class<?> requestType;
+        private final String allianceCode;
+        private final String partnerCode;
+    }
+
+    @Value
+    private static class RuleKey {
+
+        private final String type;
+        private final String field;
+        private final String rule;
+    }
+}
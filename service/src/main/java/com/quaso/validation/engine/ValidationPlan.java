@@ -0,0 +1,129 @@
+package com.quaso.validation.engine;
+
+import com.quaso.validation.engine.config.FieldDetails;
+import com.quaso.validation.engine.config.model.ClassConfiguration;
+import com.quaso.validation.engine.config.model.FieldConfiguration;
+import com.quaso.validation.engine.config.model.RuleConfiguration;
+import com.quaso.validation.utils.FieldAccessor;
+import com.quaso.validation.utils.ReflectionUtils;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Pre-resolved validation steps for one request type, http method, alliance and partner. Every node of the scanned
+ * class graph gets its class configuration resolved once, so validation only walks flat arrays. Children leading to
+ * no rules at all are left out, so such subtrees of the request are not visited. When no rule is reachable from the
+ * request type, the plan is empty and the request is not visited at all.
+ */
+@Getter
+@RequiredArgsConstructor(access = AccessLevel.PACKAGE)
+final class ValidationPlan {
+
+    static final ValidationPlan EMPTY = new ValidationPlan(null, null);
+
+    private final List<ClassConfiguration> classConfigurationList;
+    private final Node root;
+
+    /**
+     * @return whether there is no configuration or no rule reachable from the request type
+     */
+    boolean isEmpty() {
+        return root == null;
+    }
+
+    /**
+     * Plan for one class in the scanned graph, reached through a specific field (or the request itself).
+     */
+    @Getter
+    static final class Node {
+
+        private final ClassConfiguration classConfiguration;
+        private final RuleConfiguration[] classRules;
+        private final RuleStats[] classRuleStats;
+        // null when class rules are evaluated in the configured order
+        private final RuleOrder classRuleOrder;
+        // field referenced by 'input' of the class rule, null when it has no input
+        private final String[] classRuleInputFields;
+        private final FieldStep[] fieldSteps;
+        // assigned after construction, the class graph may contain cycles
+        @Setter(AccessLevel.PACKAGE)
+        private ChildStep[] children;
+        // fields referenced by 'input' of class rules of this node and all nodes below it
+        @Setter(AccessLevel.PACKAGE)
+        private Set<String> inputFields = Collections.emptySet();
+
+        Node(final ClassConfiguration classConfiguration, final RuleConfiguration[] classRules,
+            final RuleStats[] classRuleStats, final RuleOrder classRuleOrder, final String[] classRuleInputFields,
+            final FieldStep[] fieldSteps) {
+            this.classConfiguration = classConfiguration;
+            this.classRules = classRules;
+            this.classRuleStats = classRuleStats;
+            this.classRuleOrder = classRuleOrder;
+            this.classRuleInputFields = classRuleInputFields;
+            this.fieldSteps = fieldSteps;
+        }
+
+        boolean hasConfiguration() {
+            return classConfiguration != null;
+        }
+
+        boolean hasRules() {
+            if (classRules.length > 0) {
+                return true;
+            }
+            for (final FieldStep fieldStep : fieldSteps) {
+                if (fieldStep.getRules().length > 0) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+
+    @Getter
+    @RequiredArgsConstructor(access = AccessLevel.PACKAGE)
+    static final class FieldStep {
+
+        private final FieldConfiguration fieldConfiguration;
+        private final String name;
+        // declared type of the node
+        @Getter(AccessLevel.NONE)
+        private final Class<?> type;
+        // accessor of the field in the declared type, null when the type has no such field
+        @Getter(AccessLevel.NONE)
+        private final FieldAccessor accessor;
+        private final RuleConfiguration[] rules;
+        private final RuleStats[] ruleStats;
+        // null when rules are evaluated in the configured order
+        private final RuleOrder ruleOrder;
+        // index of the first rule defining 'input', which is not allowed for field rules; -1 when all are valid
+        private final int invalidRuleIndex;
+
+        /**
+         * Reads the field through the accessor resolved at compile time. Instance of another class than the declared
+         * one, e.g. a subclass which may hide the field, is looked up by field name.
+         */
+        Object getValue(final Object classInstance) {
+            if (accessor != null && classInstance.getClass() == type) {
+                return accessor.get(classInstance);
+            }
+            return ReflectionUtils.getFieldValue(classInstance, name);
+        }
+    }
+
+    @Getter
+    @RequiredArgsConstructor(access = AccessLevel.PACKAGE)
+    static final class ChildStep {
+
+        private final FieldDetails fieldDetails;
+        private final FieldAccessor accessor;
+        // field is declared as list, its elements are validated
+        private final boolean list;
+        private final Node target;
+    }
+}
@@ -0,0 +1,354 @@
+package com.quaso.validation.engine;
+
+import com.quaso.validation.engine.ValidationPlan.ChildStep;
+import com.quaso.validation.engine.ValidationPlan.FieldStep;
+import com.quaso.validation.engine.ValidationPlan.Node;
+import com.quaso.validation.engine.config.ApiScannerConfiguration;
+import com.quaso.validation.engine.config.ClassConfigurationCache;
+import com.quaso.validation.engine.config.ClassDetails;
+import com.quaso.validation.engine.config.FieldDetails;
+import com.quaso.validation.engine.config.ValidationConfigService;
+import com.quaso.validation.engine.config.model.ClassConfiguration;
+import com.quaso.validation.engine.config.model.FieldConfiguration;
+import com.quaso.validation.engine.config.model.RuleConfiguration;
+import com.quaso.validation.engine.config.properties.ValidationEngineProperties;
+import com.quaso.validation.exception.NoConfigException;
+import com.quaso.validation.utils.BoundedCache;
+import com.quaso.validation.utils.FieldPath;
+import com.quaso.validation.utils.ReflectionUtils;
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import javax.annotation.PostConstruct;
+import lombok.Value;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.http.HttpMethod;
+import org.springframework.stereotype.Component;
+
+/**
+ * Compiles and caches {@link ValidationPlan} per configuration version, request type, http method, alliance and
+ * partner. Plans of the current and the previous configuration version are kept, see {@link ClassConfigurationCache}.
+ * A plan is compiled by the first request with its configuration, in the same call which loads the configuration.
+ * When the configuration is reloaded, cached plans are compiled again for the next version in background, before the
+ * version is published, so requests do not pay for compilation after a reload.
+ */
+@Component
+@Slf4j
+public class ValidationPlanCache {
+
+    private static final RuleConfiguration[] NO_RULES = new RuleConfiguration[0];
+    private static final RuleStats[] NO_STATS = new RuleStats[0];
+    private static final FieldStep[] NO_FIELDS = new FieldStep[0];
+    private static final ChildStep[] NO_CHILDREN = new ChildStep[0];
+
+    private final ValidationConfigService validationConfigService;
+    private final ClassConfigurationCache classConfigurationCache;
+    private final ApiScannerConfiguration apiScannerConfiguration;
+    private final ValidationMetrics validationMetrics;
+    private final ValidationEngineProperties.RuleOrdering ruleOrdering;
+    private final BoundedCache<PlanKey, ValidationPlan> plans;
+    // plans of older configuration versions are already evicted
+    private volatile long evictedBelowVersion;
+
+    public ValidationPlanCache(final ValidationConfigService validationConfigService,
+        final ClassConfigurationCache classConfigurationCache, final ApiScannerConfiguration apiScannerConfiguration,
+        final ValidationEngineProperties validationEngineProperties, final ValidationMetrics validationMetrics) {
+        this.validationConfigService = validationConfigService;
+        this.classConfigurationCache = classConfigurationCache;
+        this.apiScannerConfiguration = apiScannerConfiguration;
+        this.validationMetrics = validationMetrics;
+        this.ruleOrdering = validationEngineProperties.getRuleOrdering();
+        this.plans = new BoundedCache<>(validationEngineProperties.getConfigCache().getMaxSize());
+        validationMetrics.bindCache("plans", plans);
+    }
+
+    @PostConstruct
+    void registerReloadListener() {
+        classConfigurationCache.addReloadListener(this::compilePlans);
+    }
+
+    long getConfigVersion() {
+        return classConfigurationCache.getVersion();
+    }
+
+    ValidationPlan findPlan(final Class<?> requestType, final ClassDetails classDetails, final HttpMethod httpMethod,
+        final String allianceCode, final String partnerCode) {
+        return findPlan(getConfigVersion(), requestType, classDetails, httpMethod, allianceCode, partnerCode);
+    }
+
+    /**
+     * Resolves class configuration list of the configuration version without blocking the calling thread.
+     */
+    CompletableFuture<Optional<List<ClassConfiguration>>> findClassConfigurationListAsync(final long configVersion,
+        final Class<?> requestType, final HttpMethod httpMethod, final String allianceCode, final String partnerCode,
+        final Executor executor) {
+        return classConfigurationCache.findClassConfigurationListAsync(configVersion, requestType.getSimpleName(),
+            httpMethod, allianceCode, partnerCode, executor);
+    }
+
+    /**
+     * Returns plan compiled from the class configuration list cached for the configuration version. When the list
+     * expired and was loaded again since the plan was compiled, the plan is compiled again.
+     */
+    ValidationPlan findPlan(final long configVersion, final Class<?> requestType, final ClassDetails classDetails,
+        final HttpMethod httpMethod, final String allianceCode, final String partnerCode) {
+        final List<ClassConfiguration> classConfigurationList = classConfigurationCache
+            .findClassConfigurationList(configVersion, requestType.getSimpleName(), httpMethod, allianceCode,
+                partnerCode)
+            .orElse(null);
+        return findPlan(configVersion, requestType, classDetails, httpMethod, allianceCode, partnerCode,
+            classConfigurationList);
+    }
+
+    /**
+     * @param classConfigurationList class configuration list resolved for the configuration version, null when there
+     * is no configuration
+     */
+    ValidationPlan findPlan(final long configVersion, final Class<?> requestType, final ClassDetails classDetails,
+        final HttpMethod httpMethod, final String allianceCode, final String partnerCode,
+        final List<ClassConfiguration> classConfigurationList) {
+        if (classConfigurationList == null) {
+            return ValidationPlan.EMPTY;
+        }
+        final PlanKey key = new PlanKey(configVersion, requestType, httpMethod, allianceCode, partnerCode);
+        ValidationPlan plan = plans.getIfPresent(key);
+        if (plan == null || plan.getClassConfigurationList() != classConfigurationList) {
+            plan = compile(requestType, classDetails, classConfigurationList);
+            plans.put(key, plan);
+            evictPlansOlderThan(configVersion - 1);
+        }
+        return plan;
+    }
+
+    /**
+     * Compiles plans of the current configuration version for the next one, from its configuration already loaded.
+     */
+    private void compilePlans(final long nextVersion) {
+        final Map<Class<?>, ClassDetails> knownClasses = apiScannerConfiguration.getKnownClasses();
+        for (final PlanKey key : new ArrayList<>(plans.keys())) {
+            final ClassDetails classDetails = knownClasses.get(key.getRequestType());
+            if (key.getConfigVersion() != nextVersion - 1 || classDetails == null) {
+                continue;
+            }
+            try {
+                findPlan(nextVersion, key.getRequestType(), classDetails, key.getHttpMethod(), key.getAllianceCode(),
+                    key.getPartnerCode());
+            } catch (final RuntimeException ex) {
+                // compiled again by the first request
+                log.warn("Cannot compile validation plan {}", key, ex);
+            }
+        }
+    }
+
+    private void evictPlansOlderThan(final long configVersion) {
+        if (configVersion <= evictedBelowVersion) {
+            return;
+        }
+        evictedBelowVersion = configVersion;
+        for (final PlanKey key : new ArrayList<>(plans.keys())) {
+            if (key.getConfigVersion() < configVersion) {
+                plans.invalidate(key);
+            }
+        }
+    }
+
+    private ValidationPlan compile(final Class<?> requestType, final ClassDetails classDetails,
+        final List<ClassConfiguration> classConfigurationList) {
+        ClassConfiguration rootConfiguration;
+        try {
+            rootConfiguration = validationConfigService.findClassConfiguration(requestType, classConfigurationList);
+        } catch (final NoConfigException ex) {
+            rootConfiguration = null;
+        }
+        final Map<FieldDetails, Node> compiledNodes = new IdentityHashMap<>();
+        final Node root = compileNode(requestType, null, rootConfiguration, classDetails, classConfigurationList,
+            compiledNodes);
+        prune(compiledNodes.values());
+        if (!root.hasRules() && root.getChildren().length == 0) {
+            // configuration of the tenant applies to nothing reachable from the request, it is not visited at all
+            return new ValidationPlan(classConfigurationList, null);
+        }
+        collectInputFields(compiledNodes.values());
+        return new ValidationPlan(classConfigurationList, root);
+    }
+
+    private Node compileNode(final Class<?> type, final FieldDetails nodeFieldDetails,
+        final ClassConfiguration classConfiguration, final ClassDetails classDetails,
+        final List<ClassConfiguration> classConfigurationList, final Map<FieldDetails, Node> compiledNodes) {
+        final RuleConfiguration[] classRules = compileClassRules(classConfiguration);
+        final RuleStats[] classRuleStats = compileRuleStats(type, null, classRules);
+        final Node node = new Node(classConfiguration, classRules, classRuleStats,
+            compileRuleOrder(classRules, classRuleStats, -1), compileInputFields(classRules),
+            compileFieldSteps(type, classConfiguration));
+        compiledNodes.put(nodeFieldDetails, node);
+        final Map<FieldDetails, ClassDetails> fieldIds = classDetails.getFieldIds();
+        final ChildStep[] children = new ChildStep[fieldIds.size()];
+        int i = 0;
+        for (final Entry<FieldDetails, ClassDetails> entry : fieldIds.entrySet()) {
+            final FieldDetails fieldDetails = entry.getKey();
+            Node target = compiledNodes.get(fieldDetails);
+            if (target == null) {
+                target = compileNode(fieldDetails.getFieldGenericClass(), fieldDetails,
+                    findClassConfiguration(fieldDetails, classConfigurationList), entry.getValue(),
+                    classConfigurationList, compiledNodes);
+            }
+            final Field field = fieldDetails.getField();
+            children[i++] = new ChildStep(fieldDetails, ReflectionUtils.getAccessor(field),
+                List.class.isAssignableFrom(field.getType()), target);
+        }
+        node.setChildren(children);
+        return node;
+    }
+
+    /**
+     * Removes children whose whole subtree has no rule. Nodes are marked as having rules in their subtree until
+     * nothing changes, as the class graph may contain cycles.
+     */
+    private static void prune(final Collection<Node> nodes) {
+        final Set<Node> withRules = Collections.newSetFromMap(new IdentityHashMap<>());
+        for (final Node node : nodes) {
+            if (node.hasRules()) {
+                withRules.add(node);
+            }
+        }
+        boolean changed = true;
+        while (changed) {
+            changed = false;
+            for (final Node node : nodes) {
+                if (!withRules.contains(node) && Arrays.stream(node.getChildren())
+                    .anyMatch(child -> withRules.contains(child.getTarget()))) {
+                    withRules.add(node);
+                    changed = true;
+                }
+            }
+        }
+        for (final Node node : nodes) {
+            final ChildStep[] children = Arrays.stream(node.getChildren())
+                .filter(child -> withRules.contains(child.getTarget()))
+                .toArray(ChildStep[]::new);
+            node.setChildren(children.length == 0 ? NO_CHILDREN : children);
+        }
+    }
+
+    /**
+     * Collects fields referenced by rule inputs of every subtree, so revalidation knows which subtrees depend on a
+     * changed field of their parents.
+     */
+    private static void collectInputFields(final Collection<Node> nodes) {
+        final Map<Node, Set<String>> inputFields = new IdentityHashMap<>();
+        for (final Node node : nodes) {
+            final Set<String> fields = new HashSet<>();
+            for (final String field : node.getClassRuleInputFields()) {
+                if (field != null) {
+                    fields.add(field);
+                }
+            }
+            inputFields.put(node, fields);
+        }
+        boolean changed = true;
+        while (changed) {
+            changed = false;
+            for (final Node node : nodes) {
+                for (final ChildStep child : node.getChildren()) {
+                    changed |= inputFields.get(node).addAll(inputFields.get(child.getTarget()));
+                }
+            }
+        }
+        inputFields.forEach((node, fields) -> {
+            if (!fields.isEmpty()) {
+                node.setInputFields(Collections.unmodifiableSet(fields));
+            }
+        });
+    }
+
+    private ClassConfiguration findClassConfiguration(final FieldDetails fieldDetails,
+        final List<ClassConfiguration> classConfigurationList) {
+        try {
+            return validationConfigService.findClassConfiguration(fieldDetails, classConfigurationList);
+        } catch (final NoConfigException ex) {
+            return null;
+        }
+    }
+
+    private static RuleConfiguration[] compileClassRules(final ClassConfiguration classConfiguration) {
+        if (classConfiguration == null || classConfiguration.getClassRuleConfigurationList() == null) {
+            return NO_RULES;
+        }
+        return classConfiguration.getClassRuleConfigurationList().toArray(NO_RULES);
+    }
+
+    private FieldStep[] compileFieldSteps(final Class<?> type, final ClassConfiguration classConfiguration) {
+        if (classConfiguration == null || classConfiguration.getFieldConfigurationList() == null) {
+            return NO_FIELDS;
+        }
+        final List<FieldConfiguration> fieldConfigurationList = classConfiguration.getFieldConfigurationList();
+        final FieldStep[] result = new FieldStep[fieldConfigurationList.size()];
+        for (int i = 0; i < result.length; i++) {
+            final FieldConfiguration fieldConfiguration = fieldConfigurationList.get(i);
+            final RuleConfiguration[] rules = fieldConfiguration.getRuleConfigurationList().toArray(NO_RULES);
+            int invalidRuleIndex = -1;
+            for (int j = rules.length - 1; j >= 0; j--) {
+                if (StringUtils.isNotEmpty(rules[j].getInput())) {
+                    invalidRuleIndex = j;
+                }
+            }
+            final RuleStats[] ruleStats = compileRuleStats(type, fieldConfiguration.getName(), rules);
+            result[i] = new FieldStep(fieldConfiguration, fieldConfiguration.getName(), type,
+                ReflectionUtils.findAccessor(type, fieldConfiguration.getName()), rules, ruleStats,
+                compileRuleOrder(rules, ruleStats, invalidRuleIndex), invalidRuleIndex);
+        }
+        return result;
+    }
+
+    private static String[] compileInputFields(final RuleConfiguration[] rules) {
+        final String[] result = new String[rules.length];
+        for (int i = 0; i < rules.length; i++) {
+            if (StringUtils.isNotEmpty(rules[i].getInput())) {
+                result[i] = FieldPath.compile(rules[i].getInput()).getFieldName();
+            }
+        }
+        return result;
+    }
+
+    private RuleOrder compileRuleOrder(final RuleConfiguration[] rules, final RuleStats[] ruleStats,
+        final int fixedRuleIndex) {
+        if (!ruleOrdering.isAdaptive() || rules.length < 2) {
+            return null;
+        }
+        return new RuleOrder(rules, ruleStats, fixedRuleIndex, ruleOrdering.getReorderInterval());
+    }
+
+    private RuleStats[] compileRuleStats(final Class<?> type, final String fieldName,
+        final RuleConfiguration[] rules) {
+        if (rules.length == 0) {
+            return NO_STATS;
+        }
+        final RuleStats[] result = new RuleStats[rules.length];
+        for (int i = 0; i < rules.length; i++) {
+            result[i] = validationMetrics.ruleStats(type, fieldName, rules[i]);
+        }
+        return result;
+    }
+
+    @Value
+    private static class PlanKey {
+
+        private final long configVersion;
+        private final Class<?> requestType;
+        private final HttpMethod httpMethod;
+        private final String allianceCode;
+        private final String partnerCode;
+    }
+}
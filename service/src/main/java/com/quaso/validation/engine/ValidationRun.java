@@ -0,0 +1,16 @@
+package com.quaso.validation.engine;
+
+import lombok.Value;
+import org.springframework.http.HttpMethod;
+
+/**
+ * State of one {@link ValidationEngine#validate} call shared by all objects validated in it, including list elements
+ * validated in parallel.
+ */
+@Value
+class ValidationRun {
+
+    private final HttpMethod httpMethod;
+    private final ValidationTrace trace;
+    private final RuleMemo ruleMemo;
+}
@@ -0,0 +1,39 @@
+package com.quaso.validation.engine;
+
+import com.quaso.validation.engine.config.model.RuleConfiguration;
+
+/**
+ * Receives events of one validation as they happen. Events carry the objects involved and nothing is formatted
+ * until the trace is finished, so the {@link #NOOP} trace used for requests not being traced costs only an empty
+ * call. The level of an event is the depth of validated object in the request.
+ */
+interface ValidationTrace {
+
+    ValidationTrace NOOP = new ValidationTrace() {
+    };
+
+    default void enterClass(final int level, final Class<?> type) {
+    }
+
+    default void noConfig(final int level) {
+    }
+
+    default void exitClass(final int level, final Class<?> type) {
+    }
+
+    default void field(final int level, final String fieldName) {
+    }
+
+    default void listElement(final int level, final String fieldName, final int positionInList) {
+    }
+
+    /**
+     * @param failure failure of the rule, {@code null} when the rule passed
+     */
+    default void rule(final int level, final boolean classRule, final int index,
+        final RuleConfiguration ruleConfiguration, final ValidationFailure failure) {
+    }
+
+    default void finish(final int errorCount) {
+    }
+}
@@ -0,0 +1,39 @@
+package com.quaso.validation.engine;
+
+import com.quaso.validation.engine.config.properties.ValidationEngineProperties;
+import java.util.List;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpMethod;
+import org.springframework.stereotype.Component;
+
+/**
+ * Decides which validations are traced. A validation is traced when the caller asks for it, when its alliance or
+ * alliance/partner is listed in {@code validation.engine.trace.tenants}, or always when DEBUG is enabled for
+ * {@link RecordingValidationTrace}.
+ */
+@Component
+@RequiredArgsConstructor
+public class ValidationTracing {
+
+    private static final Logger TRACE_LOG = LoggerFactory.getLogger(RecordingValidationTrace.class);
+
+    private final ValidationEngineProperties validationEngineProperties;
+
+    ValidationTrace open(final Class<?> requestType, final HttpMethod httpMethod, final String allianceCode,
+        final String partnerCode, final boolean traceRequested) {
+        if (traceRequested || isTracedTenant(allianceCode, partnerCode) || TRACE_LOG.isDebugEnabled()) {
+            return new RecordingValidationTrace(requestType, httpMethod, allianceCode, partnerCode);
+        }
+        return ValidationTrace.NOOP;
+    }
+
+    private boolean isTracedTenant(final String allianceCode, final String partnerCode) {
+        final List<String> tenants = validationEngineProperties.getTrace().getTenants();
+        if (tenants.isEmpty()) {
+            return false;
+        }
+        return tenants.contains(allianceCode) || tenants.contains(allianceCode + "/" + partnerCode);
+    }
+}
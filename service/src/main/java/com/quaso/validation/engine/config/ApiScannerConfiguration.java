@@ -3,28 +3,42 @@ package com.quaso.validation.engine.config;
 import com.quaso.validation.engine.config.properties.ValidationProperties;
 import java.lang.reflect.Method;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.ServiceLoader;
 import javax.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Component;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 
 /**
- * This class is responsible for scanning classpath for detecting request type and classes to be validated.
+ * This class is responsible for scanning classpath for detecting request type and classes to be validated. Scan
+ * result is published as an immutable map, so it is read without any synchronization. When {@link ValidationApiIndex}
+ * was generated at build time, it is used instead of scanning.
  */
 @Component
 @RequiredArgsConstructor
+@Slf4j
 public class ApiScannerConfiguration {
 
     private final ValidationProperties validationProperties;
 
-    // key is request type
-    private final Map<Class<?>, ClassDetails> knownClasses = new HashMap<>();
+    // key is request type, replaced as a whole when new request type is scanned
+    private volatile Map<Class<?>, ClassDetails> knownClasses = Collections.emptyMap();
 
     @PostConstruct
     public void scanValidationApi() {
+        final Map<Class<?>, ClassDetails> indexedRequestTypes = loadIndex();
+        if (indexedRequestTypes != null) {
+            register(indexedRequestTypes);
+            return;
+        }
+        final Map<Class<?>, ClassDetails> requestTypes = new HashMap<>();
+        // classes shared by several request types are scanned once
+        final Map<Class<?>, ClassDetails> scannedClasses = new HashMap<>();
         final Method[] declaredMethods = ValidationApi.class.getDeclaredMethods();
         for (final Method declaredMethod : declaredMethods) {
             if (declaredMethod.getAnnotation(RequestMapping.class) == null) {
@@ -35,13 +49,40 @@ public class ApiScannerConfiguration {
                 .findFirst().orElseThrow(() -> new IllegalStateException(
                     "Method " + declaredMethod.getName() + " does not have parameter with RequestBody"))
                 .getType();
-            scanRequestType(parameterType);
+            requestTypes.put(parameterType, scanClass(parameterType, scannedClasses));
         }
+        register(requestTypes);
+    }
+
+    private Map<Class<?>, ClassDetails> loadIndex() {
+        for (final ValidationApiIndex index : ServiceLoader
+            .load(ValidationApiIndex.class, ApiScannerConfiguration.class.getClassLoader())) {
+            if (!index.getPackagesToScan().equals(validationProperties.getPackagesToScan())) {
+                log.warn("ValidationApi index was generated for packages {}, but {} are configured. Scanning classes",
+                    index.getPackagesToScan(), validationProperties.getPackagesToScan());
+                continue;
+            }
+            try {
+                return index.getRequestTypes();
+            } catch (final ReflectiveOperationException | LinkageError ex) {
+                log.warn("ValidationApi index does not match classes on classpath. Scanning classes", ex);
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Scans request type and registers it as known. Request types outside of {@link ValidationApi} can be registered
+     * too, e.g. in benchmarks.
+     */
+    public void scanRequestType(final Class<?> requestType) {
+        register(Collections.singletonMap(requestType, scanClass(requestType, new HashMap<>())));
     }
 
-    private void scanRequestType(final Class<?> requestType) {
-        final ClassDetails classDetails = scanClass(requestType, new HashMap<>());
-        knownClasses.put(requestType, classDetails);
+    private synchronized void register(final Map<Class<?>, ClassDetails> requestTypes) {
+        final Map<Class<?>, ClassDetails> result = new HashMap<>(knownClasses);
+        result.putAll(requestTypes);
+        knownClasses = Collections.unmodifiableMap(result);
     }
 
     private ClassDetails scanClass(final Class<?> classType, Map<Class<?>, ClassDetails> scannedClasses) {
@@ -0,0 +1,291 @@
+package com.quaso.validation.engine.config;
+
+import com.quaso.validation.engine.config.model.ClassConfiguration;
+import com.quaso.validation.engine.config.properties.ValidationEngineProperties;
+import com.quaso.validation.exception.NoConfigException;
+import com.quaso.validation.utils.BoundedCache;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.LongConsumer;
+import javax.annotation.PreDestroy;
+import lombok.Value;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cloud.context.scope.refresh.RefreshScopeRefreshedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.HttpMethod;
+import org.springframework.stereotype.Component;
+
+/**
+ * Caches class configuration lists resolved by {@link ValidationConfigService} per request type, http method,
+ * alliance and partner. Missing configuration is cached as well, with its own time to live. Cached entries belong to
+ * a configuration version. When the configuration store is refreshed, all cached entries are loaded in background as
+ * the next version, which is then published at once, so requests never see a partially reloaded configuration and
+ * keep being served from the previous version until the new one is loaded. Entries of the previous version are kept
+ * until the next refresh for validations which pinned it. Only the current version is ever loaded, the store holds
+ * nothing else. Reload listeners prepare the next version before it is published. Concurrent misses of the same
+ * entry share its load in progress. Synchronous callers load on their own thread, they never wait for a load queued
+ * by asynchronous callers on a busy executor.
+ */
+@Component
+@Slf4j
+public class ClassConfigurationCache {
+
+    private final ValidationConfigService validationConfigService;
+    private final BoundedCache<ConfigKey, Optional<List<ClassConfiguration>>> cache;
+    // loads running right now, shared by all callers
+    private final Map<ConfigKey, CompletableFuture<Optional<List<ClassConfiguration>>>> loads =
+        new ConcurrentHashMap<>();
+    // loads waiting for their executor, shared only by asynchronous callers
+    private final Map<ConfigKey, CompletableFuture<Optional<List<ClassConfiguration>>>> queuedLoads =
+        new ConcurrentHashMap<>();
+    private final List<LongConsumer> reloadListeners = new CopyOnWriteArrayList<>();
+    private final ExecutorService refreshExecutor = Executors.newSingleThreadExecutor(runnable -> {
+        final Thread thread = new Thread(runnable, "validation-config-refresh");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    // written only by the refresh thread
+    private volatile long version;
+
+    public ClassConfigurationCache(final ValidationConfigService validationConfigService,
+        final ValidationEngineProperties validationEngineProperties) {
+        this.validationConfigService = validationConfigService;
+        final ValidationEngineProperties.ConfigCache properties = validationEngineProperties.getConfigCache();
+        final long timeToLive = properties.getTimeToLive().toNanos();
+        final long noConfigTimeToLive = properties.getNoConfigTimeToLive().toNanos();
+        this.cache = new BoundedCache<>(properties.getMaxSize(),
+            value -> value.isPresent() ? timeToLive : noConfigTimeToLive);
+    }
+
+    /**
+     * @return currently published configuration version
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    /**
+     * @return class configuration list of the current version, empty when there is no configuration (instead of
+     * {@link NoConfigException})
+     */
+    public Optional<List<ClassConfiguration>> findClassConfigurationList(final String simpleName,
+        final HttpMethod httpMethod, final String allianceCode, final String partnerCode) {
+        return findClassConfigurationList(version, simpleName, httpMethod, allianceCode, partnerCode);
+    }
+
+    /**
+     * @param version configuration version pinned by the caller, see {@link #getVersion()}. When the version is no
+     * longer current and its entry is missing, the entry of the current version is returned.
+     * @return class configuration list, empty when there is no configuration (instead of {@link NoConfigException})
+     */
+    public Optional<List<ClassConfiguration>> findClassConfigurationList(final long version, final String simpleName,
+        final HttpMethod httpMethod, final String allianceCode, final String partnerCode) {
+        final ConfigKey key = new ConfigKey(version, simpleName, httpMethod, allianceCode, partnerCode);
+        final Optional<List<ClassConfiguration>> cached = getIfPresent(key);
+        if (cached != null) {
+            return cached;
+        }
+        try {
+            // loaded by the calling thread, unless another thread is loading it already
+            return loadOnce(currentKey(key)).join();
+        } catch (final CompletionException ex) {
+            if (ex.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) ex.getCause();
+            }
+            throw ex;
+        }
+    }
+
+    /**
+     * Like {@link #findClassConfigurationList(long, String, HttpMethod, String, String)}, but never blocks the
+     * calling thread. Missing entry is loaded by the executor. When the executor rejects the load, the result
+     * completes exceptionally with {@link RejectedExecutionException}.
+     */
+    public CompletableFuture<Optional<List<ClassConfiguration>>> findClassConfigurationListAsync(final long version,
+        final String simpleName, final HttpMethod httpMethod, final String allianceCode, final String partnerCode,
+        final Executor executor) {
+        final ConfigKey key = new ConfigKey(version, simpleName, httpMethod, allianceCode, partnerCode);
+        final Optional<List<ClassConfiguration>> cached = getIfPresent(key);
+        if (cached != null) {
+            return CompletableFuture.completedFuture(cached);
+        }
+        return loadOnceAsync(currentKey(key), executor);
+    }
+
+    /**
+     * Reloads all cached configurations in background and publishes them as a new version.
+     */
+    @EventListener(RefreshScopeRefreshedEvent.class)
+    public void refresh() {
+        refreshExecutor.execute(this::reload);
+    }
+
+    /**
+     * Registers listener called on the refresh thread with the next configuration version once its entries are
+     * loaded, before the version is published.
+     */
+    public void addReloadListener(final LongConsumer listener) {
+        reloadListeners.add(listener);
+    }
+
+    public BoundedCache<?, ?> getCache() {
+        return cache;
+    }
+
+    private void reload() {
+        final long previousVersion = version;
+        final List<ConfigKey> keys = new ArrayList<>();
+        for (final ConfigKey key : cache.keys()) {
+            if (key.getVersion() == previousVersion) {
+                keys.add(key);
+            }
+        }
+        log.info("Validation configuration changed, reloading {} cached configurations", keys.size());
+        final long nextVersion = previousVersion + 1;
+        for (final ConfigKey key : keys) {
+            final ConfigKey nextKey = new ConfigKey(nextVersion, key.getSimpleName(), key.getHttpMethod(),
+                key.getAllianceCode(), key.getPartnerCode());
+            try {
+                cache.put(nextKey, load(nextKey));
+            } catch (final RuntimeException ex) {
+                // keep serving the previous configuration
+                log.warn("Cannot reload validation configuration {}", key, ex);
+                final Optional<List<ClassConfiguration>> previous = cache.getIfPresent(key);
+                if (previous != null) {
+                    cache.put(nextKey, previous);
+                }
+            }
+        }
+        for (final LongConsumer listener : reloadListeners) {
+            try {
+                listener.accept(nextVersion);
+            } catch (final RuntimeException ex) {
+                log.warn("Cannot prepare validation configuration version {}", nextVersion, ex);
+            }
+        }
+        version = nextVersion;
+        log.info("Validation configuration version {} published", nextVersion);
+        // the previous version stays for validations which pinned it, older ones are pinned by nobody
+        for (final ConfigKey key : new ArrayList<>(cache.keys())) {
+            if (key.getVersion() < previousVersion) {
+                cache.invalidate(key);
+            }
+        }
+    }
+
+    /**
+     * @return entry of the key, entry of the current version when the key's version is no longer current and its
+     * entry is missing, null when neither is cached
+     */
+    private Optional<List<ClassConfiguration>> getIfPresent(final ConfigKey key) {
+        final Optional<List<ClassConfiguration>> cached = cache.getIfPresent(key);
+        if (cached != null) {
+            return cached;
+        }
+        final ConfigKey currentKey = currentKey(key);
+        return currentKey == key ? null : cache.getIfPresent(currentKey);
+    }
+
+    /**
+     * @return key of the current version, the given key when its version is current
+     */
+    private ConfigKey currentKey(final ConfigKey key) {
+        final long currentVersion = version;
+        return key.getVersion() == currentVersion ? key : new ConfigKey(currentVersion, key.getSimpleName(),
+            key.getHttpMethod(), key.getAllianceCode(), key.getPartnerCode());
+    }
+
+    /**
+     * Loads the entry on the calling thread, or returns load of the same entry running on another thread. The entry is
+     * cached before the load is removed, so a caller finds either of them.
+     */
+    private CompletableFuture<Optional<List<ClassConfiguration>>> loadOnce(final ConfigKey key) {
+        final CompletableFuture<Optional<List<ClassConfiguration>>> created = new CompletableFuture<>();
+        final CompletableFuture<Optional<List<ClassConfiguration>>> running = loads.putIfAbsent(key, created);
+        if (running != null) {
+            return running;
+        }
+        try {
+            // cached by a load completed since the caller missed it
+            Optional<List<ClassConfiguration>> value = cache.getIfPresent(key);
+            if (value == null) {
+                value = load(key);
+                cache.put(key, value);
+            }
+            created.complete(value);
+        } catch (final RuntimeException ex) {
+            created.completeExceptionally(ex);
+        } finally {
+            loads.remove(key, created);
+        }
+        return created;
+    }
+
+    /**
+     * Returns load of the entry in progress, or queues it on the executor. Asynchronous callers missing the same entry
+     * meanwhile share the queued load, synchronous ones do not wait for it.
+     */
+    private CompletableFuture<Optional<List<ClassConfiguration>>> loadOnceAsync(final ConfigKey key,
+        final Executor executor) {
+        final CompletableFuture<Optional<List<ClassConfiguration>>> running = loads.get(key);
+        if (running != null) {
+            return running;
+        }
+        final CompletableFuture<Optional<List<ClassConfiguration>>> created = new CompletableFuture<>();
+        final CompletableFuture<Optional<List<ClassConfiguration>>> queued = queuedLoads.putIfAbsent(key, created);
+        if (queued != null) {
+            return queued;
+        }
+        try {
+            executor.execute(() -> {
+                queuedLoads.remove(key, created);
+                loadOnce(key).whenComplete((value, ex) -> {
+                    if (ex == null) {
+                        created.complete(value);
+                    } else {
+                        created.completeExceptionally(ex);
+                    }
+                });
+            });
+        } catch (final RejectedExecutionException ex) {
+            queuedLoads.remove(key, created);
+            created.completeExceptionally(ex);
+        }
+        return created;
+    }
+
+    private Optional<List<ClassConfiguration>> load(final ConfigKey key) {
+        try {
+            return Optional.of(validationConfigService.findClassConfigurationList(key.getSimpleName(),
+                key.getHttpMethod(), key.getAllianceCode(), key.getPartnerCode()));
+        } catch (final NoConfigException ex) {
+            return Optional.empty();
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        refreshExecutor.shutdownNow();
+    }
+
+    @Value
+    private static class ConfigKey {
+
+        private final long version;
+        private final String simpleName;
+        private final HttpMethod httpMethod;
+        private final String allianceCode;
+        private final String partnerCode;
+    }
+}
@@ -0,0 +1,29 @@
+package com.quaso.validation.engine.config;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Scan result of {@link ValidationApi} generated at build time by {@code api-validation-processor} (maven profile
+ * {@code api-index}). When present and generated for the configured packages, {@link ApiScannerConfiguration} uses
+ * it instead of scanning classes.
+ */
+public interface ValidationApiIndex {
+
+    /**
+     * @return packages the index was generated for
+     */
+    List<String> getPackagesToScan();
+
+    /**
+     * @return scanned classes, key is request type
+     */
+    Map<Class<?>, ClassDetails> getRequestTypes() throws ReflectiveOperationException;
+
+    static FieldDetails field(final Class<?> type, final String name) throws NoSuchFieldException {
+        return FieldDetails.builder()
+            .field(type.getDeclaredField(name))
+            .parentFieldName(name)
+            .build();
+    }
+}
@@ -0,0 +1,146 @@
+package com.quaso.validation.engine.config.properties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * Tuning of the validation engine execution.
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "validation.engine")
+public class ValidationEngineProperties {
+
+    private Parallel parallel = new Parallel();
+    private Trace trace = new Trace();
+    private ConfigCache configCache = new ConfigCache();
+    private Metrics metrics = new Metrics();
+    private RuleMemo ruleMemo = new RuleMemo();
+    private Async async = new Async();
+    private RuleOrdering ruleOrdering = new RuleOrdering();
+    private Errors errors = new Errors();
+
+    @Data
+    public static class Parallel {
+
+        /**
+         * Validate elements of large lists concurrently.
+         */
+        private boolean enabled = false;
+        /**
+         * Minimal list size to be validated concurrently.
+         */
+        private int threshold = 1000;
+        /**
+         * Number of list elements validated by one task.
+         */
+        private int chunkSize = 100;
+        /**
+         * Number of threads validating list elements, 0 means number of available processors.
+         */
+        private int parallelism = 0;
+    }
+
+    @Data
+    public static class Trace {
+
+        /**
+         * Alliances ({@code ALLIANCE}) or partners ({@code ALLIANCE/PARTNER}) whose validations are traced.
+         */
+        private List<String> tenants = new ArrayList<>();
+    }
+
+    @Data
+    public static class ConfigCache {
+
+        /**
+         * Maximal number of cached class configuration lists and validation plans.
+         */
+        private int maxSize = 10000;
+        /**
+         * Time after which cached class configuration list is loaded again.
+         */
+        private Duration timeToLive = Duration.ofHours(1);
+        /**
+         * Time after which missing class configuration is looked up again.
+         */
+        private Duration noConfigTimeToLive = Duration.ofMinutes(5);
+    }
+
+    @Data
+    public static class Metrics {
+
+        /**
+         * Publish validation metrics when a meter registry is available.
+         */
+        private boolean enabled = true;
+        /**
+         * One in how many rule evaluations is timed, 1 times all of them, 0 disables rule timing.
+         */
+        private int ruleSampleRate = 64;
+        /**
+         * Publish percentile histogram of validation latency.
+         */
+        private boolean percentileHistogram = false;
+    }
+
+    @Data
+    public static class RuleMemo {
+
+        /**
+         * Remember values passing context free rules, so they are not evaluated again for the same value.
+         */
+        private boolean enabled = true;
+        /**
+         * Share remembered values by all validations, otherwise they are remembered only within one validation.
+         */
+        private boolean shared = true;
+        /**
+         * Maximal number of remembered rule and value pairs shared by all validations.
+         */
+        private int maxSize = 10000;
+    }
+
+    @Data
+    public static class Async {
+
+        /**
+         * Number of threads running asynchronous validations, 0 means number of available processors.
+         */
+        private int threads = 0;
+        /**
+         * Maximal number of asynchronous validations waiting for a thread, further ones are rejected.
+         */
+        private int queueCapacity = 10000;
+    }
+
+    @Data
+    public static class RuleOrdering {
+
+        /**
+         * In fail fast mode evaluate cheap rules likely to fail first, based on rule statistics collected at runtime.
+         */
+        private boolean adaptive = false;
+        /**
+         * Average number of validations of a field or class after which order of its rules is computed again.
+         */
+        private int reorderInterval = 1000;
+    }
+
+    @Data
+    public static class Errors {
+
+        /**
+         * Maximal number of errors reported for one request, validation stops once reached; 0 means no limit.
+         */
+        private int maxCount = 0;
+        /**
+         * Report only the first error of every rule of a field or class, e.g. of the first invalid list element.
+         */
+        private boolean deduplicate = false;
+    }
+}
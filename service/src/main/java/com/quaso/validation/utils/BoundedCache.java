@@ -0,0 +1,122 @@
+package com.quaso.validation.utils;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.ToLongFunction;
+
+/**
+ * Concurrent cache with a maximal size and time to live of its entries. Reads take no locks. When the cache grows
+ * over its size, the least recently read tenth of entries is evicted at once, so eviction cost is amortized over
+ * many writes.
+ */
+public class BoundedCache<K, V> {
+
+    private final Map<K, Entry<V>> entries = new ConcurrentHashMap<>();
+    private final ReentrantLock evictionLock = new ReentrantLock();
+    private final LongAdder hitCount = new LongAdder();
+    private final LongAdder missCount = new LongAdder();
+
+    private final int maxSize;
+    private final ToLongFunction<V> timeToLiveNanos;
+
+    /**
+     * @param timeToLiveNanos time to live of the value in nanoseconds, {@link Long#MAX_VALUE} for no expiration
+     */
+    public BoundedCache(final int maxSize, final ToLongFunction<V> timeToLiveNanos) {
+        this.maxSize = maxSize;
+        this.timeToLiveNanos = timeToLiveNanos;
+    }
+
+    public BoundedCache(final int maxSize) {
+        this(maxSize, value -> Long.MAX_VALUE);
+    }
+
+    /**
+     * @return cached value, or {@code null} when the key is not cached or expired
+     */
+    public V getIfPresent(final K key) {
+        final Entry<V> entry = entries.get(key);
+        final long now = System.nanoTime();
+        if (entry == null || entry.isExpired(now)) {
+            missCount.increment();
+            return null;
+        }
+        hitCount.increment();
+        entry.lastAccess = now;
+        return entry.value;
+    }
+
+    public void put(final K key, final V value) {
+        final long now = System.nanoTime();
+        final long timeToLive = timeToLiveNanos.applyAsLong(value);
+        final long expiresAt = timeToLive == Long.MAX_VALUE ? Long.MAX_VALUE : now + timeToLive;
+        entries.put(key, new Entry<>(value, expiresAt, now));
+        if (entries.size() > maxSize) {
+            evict();
+        }
+    }
+
+    public Set<K> keys() {
+        return entries.keySet();
+    }
+
+    public void invalidate(final K key) {
+        entries.remove(key);
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    public long getHitCount() {
+        return hitCount.sum();
+    }
+
+    public long getMissCount() {
+        return missCount.sum();
+    }
+
+    private void evict() {
+        if (!evictionLock.tryLock()) {
+            // somebody else is evicting right now
+            return;
+        }
+        try {
+            final int toEvict = entries.size() - maxSize + maxSize / 10;
+            if (toEvict <= 0) {
+                return;
+            }
+            final List<Map.Entry<K, Entry<V>>> snapshot = new ArrayList<>(entries.entrySet());
+            snapshot.sort(Comparator.comparingLong(entry -> entry.getValue().lastAccess));
+            for (int i = 0; i < toEvict && i < snapshot.size(); i++) {
+                entries.remove(snapshot.get(i).getKey(), snapshot.get(i).getValue());
+            }
+        } finally {
+            evictionLock.unlock();
+        }
+    }
+
+    private static final class Entry<V> {
+
+        private final V value;
+        private final long expiresAt;
+        // updated without synchronization, eviction order is only approximate
+        private long lastAccess;
+
+        private Entry(final V value, final long expiresAt, final long lastAccess) {
+            this.value = value;
+            this.expiresAt = expiresAt;
+            this.lastAccess = lastAccess;
+        }
+
+        private boolean isExpired(final long now) {
+            return expiresAt != Long.MAX_VALUE && now - expiresAt >= 0;
+        }
+    }
+}
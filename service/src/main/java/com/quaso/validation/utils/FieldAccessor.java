@@ -0,0 +1,59 @@
+package com.quaso.validation.utils;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import lombok.Getter;
+
+/**
+ * Reads value of one field through a {@link MethodHandle} resolved once, without touching the accessible flag of
+ * the field on every read. Instances are cached by {@link ReflectionUtils}.
+ */
+public final class FieldAccessor {
+
+    private static final MethodType GETTER_TYPE = MethodType.methodType(Object.class, Object.class);
+
+    @Getter
+    private final Field field;
+    private final MethodHandle getter;
+
+    private FieldAccessor(final Field field, final MethodHandle getter) {
+        this.field = field;
+        this.getter = getter;
+    }
+
+    static FieldAccessor of(final Field field) {
+        MethodHandle getter;
+        try {
+            getter = MethodHandles.privateLookupIn(field.getDeclaringClass(), MethodHandles.lookup())
+                .unreflectGetter(field);
+        } catch (final IllegalAccessException | RuntimeException e) {
+            // class is not open to us, fall back to accessible field
+            field.setAccessible(true);
+            try {
+                getter = MethodHandles.lookup().unreflectGetter(field);
+            } catch (final IllegalAccessException ex) {
+                getter = null;
+            }
+        }
+        if (getter != null && Modifier.isStatic(field.getModifiers())) {
+            getter = MethodHandles.dropArguments(getter, 0, Object.class);
+        }
+        return new FieldAccessor(field, getter == null ? null : getter.asType(GETTER_TYPE));
+    }
+
+    public Object get(final Object object) {
+        if (getter == null) {
+            return null;
+        }
+        try {
+            return (Object) getter.invokeExact(object);
+        } catch (final RuntimeException | Error e) {
+            throw e;
+        } catch (final Throwable e) {
+            throw new IllegalStateException("Cannot read field " + field.getName(), e);
+        }
+    }
+}
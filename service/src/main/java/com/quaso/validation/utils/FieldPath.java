@@ -0,0 +1,104 @@
+package com.quaso.validation.utils;
+
+import com.quaso.validation.exception.UnknownFieldException;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Compiled field reference with {@code parent.}, {@code any.} and {@code top.} prefixes. Expression is parsed once
+ * and evaluated against the hierarchy stack (current object on top) without copying or modifying it.
+ */
+@Getter
+@RequiredArgsConstructor(access = AccessLevel.PRIVATE)
+public final class FieldPath {
+
+    private static final String PREFIX_PARENT = "parent.";
+    private static final String PREFIX_ANY = "any.";
+    private static final String PREFIX_TOP = "top.";
+
+    private static final Map<String, FieldPath> COMPILED = new ConcurrentHashMap<>();
+
+    private final String expression;
+    // hops are counted from the top of the stack, or from its bottom when 'top.' was used
+    private final boolean fromBottom;
+    private final int hops;
+    private final boolean any;
+    private final String fieldName;
+
+    public static FieldPath compile(final String expression) {
+        FieldPath fieldPath = COMPILED.get(expression);
+        if (fieldPath == null) {
+            fieldPath = parse(expression);
+            COMPILED.putIfAbsent(expression, fieldPath);
+        }
+        return fieldPath;
+    }
+
+    private static FieldPath parse(final String expression) {
+        boolean fromBottom = false;
+        int hops = 0;
+        int index = 0;
+        for (; ; ) {
+            if (expression.startsWith(PREFIX_TOP, index)) {
+                fromBottom = true;
+                hops = 0;
+                index += PREFIX_TOP.length();
+            } else if (expression.startsWith(PREFIX_PARENT, index)) {
+                hops++;
+                index += PREFIX_PARENT.length();
+            } else if (expression.startsWith(PREFIX_ANY, index)) {
+                // rest of the expression is looked up as plain field name
+                return new FieldPath(expression, fromBottom, hops, true,
+                    expression.substring(index + PREFIX_ANY.length()));
+            } else {
+                return new FieldPath(expression, fromBottom, hops, false, expression.substring(index));
+            }
+        }
+    }
+
+    public Object getValue(final Deque<?> hierarchyDeque) {
+        final int size = hierarchyDeque.size();
+        // position of the starting object, counted from the top of the stack
+        final int position = fromBottom ? size - 1 + hops : hops;
+        if (position >= size) {
+            throw new UnknownFieldException(fieldName);
+        }
+        final Iterator<?> iterator;
+        final int skip;
+        if (fromBottom) {
+            iterator = hierarchyDeque.descendingIterator();
+            skip = 0;
+        } else {
+            iterator = hierarchyDeque.iterator();
+            skip = position;
+        }
+        for (int i = 0; i < skip; i++) {
+            iterator.next();
+        }
+        Object object = iterator.next();
+        if (!any) {
+            return ReflectionUtils.getFieldValue(object, fieldName);
+        }
+        for (; ; ) {
+            final FieldAccessor accessor = object == null ? null : ReflectionUtils
+                .findAccessor(object.getClass(), fieldName);
+            if (accessor != null) {
+                return accessor.get(object);
+            }
+            if (fromBottom || !iterator.hasNext()) {
+                throw new UnknownFieldException(fieldName);
+            }
+            object = iterator.next();
+        }
+    }
+
+    @Override
+    public String toString() {
+        return expression;
+    }
+}
@@ -3,74 +3,72 @@ package com.quaso.validation.utils;
 import com.quaso.validation.exception.UnknownFieldException;
 import java.lang.reflect.Field;
 import java.util.Deque;
-import java.util.LinkedList;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
 import lombok.experimental.UtilityClass;
-import lombok.extern.slf4j.Slf4j;
 
 @UtilityClass
-@Slf4j
 public class ReflectionUtils {
 
-    private static final String PREFIX_PARENT = "parent.";
-    private static final String PREFIX_ANY = "any.";
-    private static final String PREFIX_TOP = "top.";
+    // accessors by field name, resolved for each class the field was looked up from
+    private static final ClassValue<Map<String, Optional<FieldAccessor>>> ACCESSORS_BY_NAME =
+        new ClassValue<Map<String, Optional<FieldAccessor>>>() {
+            @Override
+            protected Map<String, Optional<FieldAccessor>> computeValue(final Class<?> type) {
+                return new ConcurrentHashMap<>();
+            }
+        };
+    // accessors of fields declared in class
+    private static final ClassValue<Map<Field, FieldAccessor>> ACCESSORS_BY_FIELD =
+        new ClassValue<Map<Field, FieldAccessor>>() {
+            @Override
+            protected Map<Field, FieldAccessor> computeValue(final Class<?> type) {
+                return new ConcurrentHashMap<>();
+            }
+        };
 
     public Object getFieldValue(final Object object, final Field field) {
-        final boolean canAccess = field.canAccess(object);
-        if (!canAccess) {
-            field.setAccessible(true);
-        }
-        try {
-            return field.get(object);
-        } catch (final IllegalAccessException e) {
-            return null;
-        } finally {
-            if (!canAccess) {
-                field.setAccessible(canAccess);
-            }
-        }
+        return getAccessor(field).get(object);
     }
 
     public Object getFieldValue(final Object object, final String fieldName) {
-        final Field field = org.springframework.util.ReflectionUtils.findField(object.getClass(), fieldName);
-        if (field == null) {
+        final FieldAccessor accessor = findAccessor(object.getClass(), fieldName);
+        if (accessor == null) {
             throw new UnknownFieldException(fieldName, object.getClass());
         }
-        return getFieldValue(object, field);
+        return accessor.get(object);
     }
 
-    public Object getFieldValue(final String fieldName, final Deque hierarchyDeque, final boolean cloneStack) {
-        Deque deque = hierarchyDeque;
-        if (cloneStack) {
-            deque = new LinkedList<>();
-            deque.addAll(hierarchyDeque);
-        }
+    public FieldAccessor getAccessor(final Field field) {
+        return ACCESSORS_BY_FIELD.get(field.getDeclaringClass()).computeIfAbsent(field, FieldAccessor::of);
+    }
 
-        if (fieldName.startsWith(PREFIX_TOP)) {
-            // remove all but first element from stack
-            while (deque.size() > 1) {
-                deque.pop();
-            }
-            return getFieldValue(fieldName.substring(PREFIX_TOP.length()), deque, false);
-        } else if (fieldName.startsWith(PREFIX_ANY)) {
-            for (; ; ) {
-                try {
-                    return getFieldValue(deque.peek(), fieldName.substring(PREFIX_ANY.length()));
-                } catch (final UnknownFieldException ex) {
-                    log.debug(ex.getMessage());
-                    // remove current element from stack, so parent is new current
-                    deque.pop();
-                    if (deque.isEmpty()) {
-                        throw new UnknownFieldException(fieldName.substring(PREFIX_ANY.length()));
-                    }
-                    return getFieldValue(fieldName, deque, false);
-                }
-            }
-        } else if (fieldName.startsWith(PREFIX_PARENT)) {
-            // remove current element from stack, so parent is new current
-            deque.pop();
-            return getFieldValue(fieldName.substring(PREFIX_PARENT.length()), deque, false);
+    /**
+     * @return accessor of field with given name declared in type or any of its superclasses, {@code null} if there is
+     * no such field
+     */
+    public FieldAccessor findAccessor(final Class<?> type, final String fieldName) {
+        final Map<String, Optional<FieldAccessor>> accessors = ACCESSORS_BY_NAME.get(type);
+        Optional<FieldAccessor> accessor = accessors.get(fieldName);
+        if (accessor == null) {
+            // unknown fields are cached as empty
+            final Field field = org.springframework.util.ReflectionUtils.findField(type, fieldName);
+            accessor = field == null ? Optional.empty() : Optional.of(getAccessor(field));
+            accessors.put(fieldName, accessor);
         }
-        return getFieldValue(deque.peek(), fieldName);
+        return accessor.orElse(null);
+    }
+
+    /**
+     * Evaluates field reference which may use {@code parent.}, {@code any.} and {@code top.} prefixes against
+     * hierarchy stack. The stack is never modified, so {@code cloneStack} has no effect any more.
+     */
+    public Object getFieldValue(final String fieldName, final Deque hierarchyDeque, final boolean cloneStack) {
+        return getFieldValue(fieldName, hierarchyDeque);
+    }
+
+    public Object getFieldValue(final String fieldName, final Deque<?> hierarchyDeque) {
+        return FieldPath.compile(fieldName).getValue(hierarchyDeque);
     }
 }
@@ -0,0 +1,80 @@
+package com.quaso.validation.engine;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import com.quaso.validation.engine.config.model.RuleConfiguration;
+import com.quaso.validation.engine.config.properties.ValidationEngineProperties;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import org.junit.Test;
+
+public class ErrorSinkTest {
+
+    private static final int MAX_COUNT = 10;
+    private static final int CHUNKS = 8;
+
+    @Test
+    public void forksShareMaximalNumberOfFailures() throws InterruptedException, ExecutionException {
+        final ValidationEngineProperties.Errors properties = new ValidationEngineProperties.Errors();
+        properties.setMaxCount(MAX_COUNT);
+        final ErrorSink errors = ErrorSink.create(properties);
+        final List<Callable<ErrorSink>> tasks = new ArrayList<>();
+        for (int i = 0; i < CHUNKS; i++) {
+            final ErrorSink chunkErrors = errors.fork();
+            tasks.add(() -> {
+                // every chunk fails more often than the whole request may
+                for (int j = 0; j < MAX_COUNT * 2 && !chunkErrors.isFull(); j++) {
+                    chunkErrors.add(failure(new RuleConfiguration()));
+                }
+                return chunkErrors;
+            });
+        }
+        final ExecutorService executor = Executors.newFixedThreadPool(CHUNKS);
+        final List<ErrorSink> chunks = new ArrayList<>();
+        try {
+            for (final Future<ErrorSink> future : executor.invokeAll(tasks)) {
+                chunks.add(future.get());
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        int held = 0;
+        for (final ErrorSink chunkErrors : chunks) {
+            held += chunkErrors.getFailures().size();
+        }
+        assertEquals(MAX_COUNT, held);
+        chunks.forEach(errors::addAll);
+        assertEquals(MAX_COUNT, errors.getFailures().size());
+        assertTrue(errors.isFull());
+    }
+
+    @Test
+    public void failuresDroppedAsDuplicatesWhenMergedFreeTheirPlace() {
+        final ValidationEngineProperties.Errors properties = new ValidationEngineProperties.Errors();
+        properties.setMaxCount(2);
+        properties.setDeduplicate(true);
+        final ErrorSink errors = ErrorSink.create(properties);
+        final RuleConfiguration rule = new RuleConfiguration();
+        final ErrorSink first = errors.fork();
+        final ErrorSink second = errors.fork();
+        first.add(failure(rule));
+        second.add(failure(rule));
+
+        errors.addAll(first);
+        errors.addAll(second);
+        errors.add(failure(new RuleConfiguration()));
+
+        assertEquals(2, errors.getFailures().size());
+    }
+
+    private static ValidationFailure failure(final RuleConfiguration rule) {
+        return new ValidationFailure(new ValidationErrorResponse(), ErrorPath.root(Object.class), null, rule);
+    }
+}
@@ -0,0 +1,154 @@
+package com.quaso.validation.engine;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import com.quaso.validation.engine.ValidationPlan.ChildStep;
+import com.quaso.validation.engine.ValidationPlan.FieldStep;
+import com.quaso.validation.engine.ValidationPlan.Node;
+import com.quaso.validation.engine.config.FieldDetails;
+import com.quaso.validation.engine.config.model.RuleConfiguration;
+import com.quaso.validation.utils.ReflectionUtils;
+import java.lang.reflect.Field;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import org.junit.Test;
+
+public class FieldChangesTest {
+
+    @Test
+    public void diffComparesFieldsReadByClassRulesBelow() throws NoSuchFieldException {
+        // Order has no rules, Item has a class rule with input 'parent.id'
+        final Node item = node();
+        item.setInputFields(Collections.singleton("id"));
+        final Node order = node(child(Order.class.getDeclaredField("items"), item));
+
+        final FieldChanges changes = FieldChanges.diff(order, new Order("ok", "a", items()),
+            new Order("bad", "a", items()));
+
+        assertNotNull(changes.getField("id"));
+        assertTrue(changes.getField("id").isAll());
+        assertNull(changes.getField("items"));
+    }
+
+    @Test
+    public void diffIgnoresFieldsNotReadByPlan() throws NoSuchFieldException {
+        final Node item = node();
+        item.setInputFields(Collections.singleton("id"));
+        final Node order = node(child(Order.class.getDeclaredField("items"), item));
+
+        final FieldChanges changes = FieldChanges.diff(order, new Order("ok", "a", items()),
+            new Order("ok", "b", items()));
+
+        assertTrue(changes.isEmpty());
+    }
+
+    @Test
+    public void diffIgnoresInputFieldsMissingInClass() throws NoSuchFieldException {
+        // 'top.' inputs may refer to fields of objects further above
+        final Node item = node();
+        item.setInputFields(Collections.singleton("customerId"));
+        final Node order = node(child(Order.class.getDeclaredField("items"), item));
+
+        final FieldChanges changes = FieldChanges.diff(order, new Order("ok", "a", items()),
+            new Order("bad", "a", items()));
+
+        assertTrue(changes.isEmpty());
+    }
+
+    @Test
+    public void diffComparesSuperclassFieldsForClassRules() {
+        // the class rule sees the whole object, including fields declared by its superclass
+        final Node node = new Node(null, new RuleConfiguration[] {new RuleConfiguration()}, new RuleStats[1], null,
+            new String[1], new FieldStep[0]);
+        node.setChildren(new ChildStep[0]);
+
+        final FieldChanges changes = FieldChanges.diff(node, new SpecialOrder("ok", "a", items(), "x"),
+            new SpecialOrder("bad", "a", items(), "x"));
+
+        assertTrue(changes.getField("id").isAll());
+    }
+
+    @Test
+    public void parseReplacesChangesBelowFieldChangedAsWhole() {
+        final FieldChanges changes = FieldChanges.parse(Arrays.asList("items[2].sku", "items", "items[1].sku"));
+
+        assertTrue(changes.getField("items").isAll());
+        assertSame(FieldChanges.ALL, changes.getField("items"));
+        assertTrue(FieldChanges.ALL.getFieldNames().isEmpty());
+    }
+
+    @Test
+    public void parseListElementPath() {
+        final FieldChanges changes = FieldChanges.parse(Arrays.asList("items[2].sku", "id"));
+
+        assertTrue(changes.getField("id").isAll());
+        assertEquals(Collections.singleton("sku"), changes.getField("items").getElement(2).getFieldNames());
+        assertNull(changes.getField("items").getElement(1));
+    }
+
+    private static Node node(final ChildStep... children) {
+        final Node result = new Node(null, new RuleConfiguration[0], new RuleStats[0], null, new String[0],
+            new FieldStep[0]);
+        result.setChildren(children);
+        return result;
+    }
+
+    private static ChildStep child(final Field field, final Node target) {
+        final FieldDetails fieldDetails = FieldDetails.builder()
+            .field(field)
+            .parentFieldName(field.getName())
+            .build();
+        return new ChildStep(fieldDetails, ReflectionUtils.getAccessor(field), true, target);
+    }
+
+    private static List<Item> items() {
+        return Arrays.asList(new Item("A"), new Item("B"));
+    }
+
+    private static class Order {
+
+        private final String id;
+        private final String note;
+        private final List<Item> items;
+
+        private Order(final String id, final String note, final List<Item> items) {
+            this.id = id;
+            this.note = note;
+            this.items = items;
+        }
+    }
+
+    private static class SpecialOrder extends Order {
+
+        private final String channel;
+
+        private SpecialOrder(final String id, final String note, final List<Item> items, final String channel) {
+            super(id, note, items);
+            this.channel = channel;
+        }
+    }
+
+    private static class Item {
+
+        private final String sku;
+
+        private Item(final String sku) {
+            this.sku = sku;
+        }
+
+        @Override
+        public boolean equals(final Object object) {
+            return object instanceof Item && ((Item) object).sku.equals(sku);
+        }
+
+        @Override
+        public int hashCode() {
+            return sku.hashCode();
+        }
+    }
+}
@@ -0,0 +1,169 @@
+package com.quaso.validation.engine;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.annotation.JsonSetter;
+import com.fasterxml.jackson.annotation.Nulls;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JsonDeserializer;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.fasterxml.jackson.databind.exc.UnrecognizedPropertyException;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import org.junit.Test;
+
+public class JsonRequestBindingTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    public void bindingIsCachedPerObjectMapperAndType() throws IOException {
+        final JsonRequestBinding binding = JsonRequestBinding.of(objectMapper.getFactory().createParser("{}"),
+            Order.class);
+
+        assertSame(binding, JsonRequestBinding.of(objectMapper.getFactory().createParser("{}"), Order.class));
+        assertFalse(binding == JsonRequestBinding.of(new ObjectMapper().getFactory().createParser("{}"),
+            Order.class));
+    }
+
+    @Test
+    public void propertiesUseJacksonAnnotations() throws IOException {
+        final Order order = read(objectMapper, "{\"code\":\"ab\",\"note\":null,\"amount\":\"12\"}");
+
+        assertEquals("AB", order.code);
+        assertEquals("", order.note);
+        assertEquals(Integer.valueOf(12), order.amount);
+    }
+
+    @Test
+    public void listElementsUseContentDeserializer() throws IOException {
+        final JsonParser parser = objectMapper.getFactory().createParser("{\"items\":[\"a\",null,\"b\"]}");
+        final JsonRequestBinding binding = JsonRequestBinding.of(parser, Order.class);
+        final DeserializationContext context = binding.createContext(parser);
+        final Object order = binding.instantiate(context);
+        parser.nextToken();
+        parser.nextToken();
+        final String name = parser.getCurrentName();
+        parser.nextToken();
+        final JsonRequestBinding.Property property = binding.findProperty(parser, context, order, name);
+
+        assertTrue(property.isElementStreamable());
+        final Collection<Object> elements = property.createList(context);
+        while (parser.nextToken() != JsonToken.END_ARRAY) {
+            elements.add(property.readElement(parser, context));
+        }
+        assertEquals(Arrays.asList("A", null, "B"), elements);
+    }
+
+    @Test
+    public void ignoredPropertiesAreSkipped() throws IOException {
+        final Order order = read(objectMapper, "{\"secret\":{\"a\":[1]},\"code\":\"x\"}");
+
+        assertEquals("X", order.code);
+    }
+
+    @Test(expected = UnrecognizedPropertyException.class)
+    public void unknownPropertyFailsWhenMapperFailsOnUnknownProperties() throws IOException {
+        read(objectMapper, "{\"unknown\":1}");
+    }
+
+    @Test
+    public void unknownPropertyIsSkippedWhenMapperIgnoresUnknownProperties() throws IOException {
+        final ObjectMapper lenient = new ObjectMapper()
+            .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+
+        final Order order = read(lenient, "{\"unknown\":{\"a\":[1]},\"code\":\"x\"}");
+
+        assertEquals("X", order.code);
+        assertNull(order.note);
+    }
+
+    @Test
+    public void beanWithoutDefaultConstructorIsNotStreamable() throws IOException {
+        final JsonRequestBinding binding = JsonRequestBinding.of(objectMapper.getFactory().createParser("{}"),
+            Immutable.class);
+
+        assertFalse(binding.isStreamable());
+        assertNotNull(binding.readValue(objectMapper.getFactory().createParser("{\"value\":\"v\"}")));
+    }
+
+    private static Order read(final ObjectMapper mapper, final String json) throws IOException {
+        final JsonParser parser = mapper.getFactory().createParser(json);
+        final JsonRequestBinding binding = JsonRequestBinding.of(parser, Order.class);
+        assertTrue(binding.isStreamable());
+        final DeserializationContext context = binding.createContext(parser);
+        final Object order = binding.instantiate(context);
+        parser.nextToken();
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            final String name = parser.getCurrentName();
+            parser.nextToken();
+            final JsonRequestBinding.Property property = binding.findProperty(parser, context, order, name);
+            if (property != null) {
+                property.deserializeAndSet(parser, context, order);
+            }
+        }
+        return (Order) order;
+    }
+
+    public static class UpperCase extends JsonDeserializer<String> {
+
+        @Override
+        public String deserialize(final JsonParser parser, final DeserializationContext context) throws IOException {
+            return parser.getValueAsString().toUpperCase();
+        }
+    }
+
+    @JsonIgnoreProperties("secret")
+    private static class Order {
+
+        @JsonDeserialize(using = UpperCase.class)
+        private String code;
+        @JsonSetter(nulls = Nulls.AS_EMPTY)
+        private String note;
+        @JsonFormat(shape = JsonFormat.Shape.STRING)
+        private Integer amount;
+        @JsonDeserialize(contentUsing = UpperCase.class)
+        private List<String> items;
+
+        public void setCode(final String code) {
+            this.code = code;
+        }
+
+        public void setNote(final String note) {
+            this.note = note;
+        }
+
+        public void setAmount(final Integer amount) {
+            this.amount = amount;
+        }
+
+        public void setItems(final List<String> items) {
+            this.items = items;
+        }
+    }
+
+    private static class Immutable {
+
+        private final String value;
+
+        @JsonCreator
+        Immutable(@JsonProperty("value") final String value) {
+            this.value = value;
+        }
+    }
+}
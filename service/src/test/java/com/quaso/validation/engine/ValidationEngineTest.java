@@ -0,0 +1,232 @@
+package com.quaso.validation.engine;
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.quaso.validation.engine.config.ApiScannerConfiguration;
+import com.quaso.validation.engine.config.ClassConfigurationCache;
+import com.quaso.validation.engine.config.FieldDetails;
+import com.quaso.validation.engine.config.ValidationConfigService;
+import com.quaso.validation.engine.config.ValidationContext;
+import com.quaso.validation.engine.config.model.ClassConfiguration;
+import com.quaso.validation.engine.config.model.FieldConfiguration;
+import com.quaso.validation.engine.config.model.RuleConfiguration;
+import com.quaso.validation.engine.config.properties.ValidationEngineProperties;
+import com.quaso.validation.engine.config.properties.ValidationProperties;
+import com.quaso.validation.exception.NoConfigException;
+import com.quaso.validation.utils.ReflectionUtils;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Collectors;
+import lombok.Data;
+import org.junit.Test;
+import org.springframework.http.HttpMethod;
+
+public class ValidationEngineTest {
+
+    private static final String ALLIANCE = "ALLIANCE";
+    private static final String PARTNER = "PARTNER";
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    public void streamedListIsSetBeforeElementRulesReadingIt() throws IOException {
+        // rule of every item reads the list it is an element of
+        final ValidationEngine engine = engine(classConfiguration(),
+            classConfiguration(listNotEmpty("parent.items")), classConfiguration());
+        final String json = "{\"id\":\"1\",\"items\":[{\"sku\":\"a\"},{\"sku\":\"b\"}]}";
+
+        assertSameErrors(engine, json);
+        assertEquals(0, validateJson(engine, json).size());
+    }
+
+    @Test
+    public void streamedListIsKeptForRulesOfOtherObjects() throws IOException {
+        // items have rules of their own, the summary reads the list of the request
+        final ValidationEngine engine = engine(classConfiguration(),
+            classConfiguration(Collections.emptyList(), field("sku", rule("sku not null", null,
+                (value, context) -> value != null))),
+            classConfiguration(listNotEmpty("top.items")));
+        final String json = "{\"items\":[{\"sku\":\"a\"},{\"sku\":null}],\"summary\":{\"count\":2}}";
+
+        assertSameErrors(engine, json);
+        assertEquals(1, validateJson(engine, json).size());
+    }
+
+    private void assertSameErrors(final ValidationEngine engine, final String json) throws IOException {
+        final List<ValidationErrorResponse> expected = engine.validate(objectMapper.readValue(json, Order.class),
+            HttpMethod.POST, ALLIANCE, PARTNER);
+
+        assertEquals(fieldPaths(expected), fieldPaths(validateJson(engine, json)));
+    }
+
+    private List<ValidationErrorResponse> validateJson(final ValidationEngine engine, final String json)
+        throws IOException {
+        return engine.validate(objectMapper.getFactory().createParser(json), Order.class, HttpMethod.POST, ALLIANCE,
+            PARTNER);
+    }
+
+    private static List<String> fieldPaths(final List<ValidationErrorResponse> errors) {
+        return errors.stream().map(ValidationErrorResponse::getFieldPath).collect(Collectors.toList());
+    }
+
+    private static ValidationEngine engine(final ClassConfiguration orderConfiguration,
+        final ClassConfiguration itemConfiguration, final ClassConfiguration summaryConfiguration) {
+        final ValidationConfigService validationConfigService = mock(ValidationConfigService.class);
+        when(validationConfigService.findClassConfigurationList(anyString(), any(), anyString(), anyString()))
+            .thenReturn(Arrays.asList(orderConfiguration, itemConfiguration, summaryConfiguration));
+        when(validationConfigService.findClassConfiguration(any(Class.class), anyList()))
+            .thenReturn(orderConfiguration);
+        when(validationConfigService.findClassConfiguration(any(FieldDetails.class), anyList())).thenAnswer(
+            invocation -> {
+                final Class<?> type = invocation.<FieldDetails>getArgument(0).getFieldGenericClass();
+                if (type == Item.class) {
+                    return itemConfiguration;
+                } else if (type == Summary.class) {
+                    return summaryConfiguration;
+                }
+                throw new NoConfigException();
+            });
+
+        final List<String> packagesToScan = Collections.singletonList(Order.class.getPackage().getName());
+        final ValidationProperties validationProperties = new ValidationProperties() {
+            @Override
+            public List<String> getPackagesToScan() {
+                return packagesToScan;
+            }
+        };
+        final ValidationEngineProperties validationEngineProperties = new ValidationEngineProperties();
+        final ApiScannerConfiguration apiScannerConfiguration = new ApiScannerConfiguration(validationProperties);
+        apiScannerConfiguration.scanRequestType(Order.class);
+        final ClassConfigurationCache classConfigurationCache = new ClassConfigurationCache(validationConfigService,
+            validationEngineProperties);
+        final ValidationMetrics validationMetrics = new ValidationMetrics(Optional.empty(),
+            validationEngineProperties, classConfigurationCache);
+        return new ValidationEngine(validationProperties, apiScannerConfiguration,
+            new ValidationPlanCache(validationConfigService, classConfigurationCache, apiScannerConfiguration,
+                validationEngineProperties, validationMetrics),
+            new ParallelValidationExecutor(validationEngineProperties),
+            new ValidationTracing(validationEngineProperties), validationMetrics,
+            new RuleMemoization(validationEngineProperties, validationMetrics),
+            new AsyncValidationExecutor(validationEngineProperties), validationEngineProperties);
+    }
+
+    private static List<RuleConfiguration> listNotEmpty(final String input) {
+        return Collections.singletonList(rule("items not empty", input, (value, context) -> {
+            final List<?> items = (List<?>) ReflectionUtils.getFieldValue(input, context.getHierarchyStack());
+            return items != null && !items.isEmpty();
+        }));
+    }
+
+    private static ClassConfiguration classConfiguration(final List<RuleConfiguration> classRules,
+        final FieldConfiguration... fields) {
+        final List<FieldConfiguration> fieldList = Arrays.asList(fields);
+        return new ClassConfiguration() {
+            @Override
+            public List<RuleConfiguration> getClassRuleConfigurationList() {
+                return classRules;
+            }
+
+            @Override
+            public List<FieldConfiguration> getFieldConfigurationList() {
+                return fieldList;
+            }
+        };
+    }
+
+    private static ClassConfiguration classConfiguration() {
+        return classConfiguration(Collections.emptyList());
+    }
+
+    private static FieldConfiguration field(final String name, final RuleConfiguration... rules) {
+        final List<RuleConfiguration> ruleList = Arrays.asList(rules);
+        return new FieldConfiguration() {
+            @Override
+            public String getName() {
+                return name;
+            }
+
+            @Override
+            public List<RuleConfiguration> getRuleConfigurationList() {
+                return ruleList;
+            }
+        };
+    }
+
+    private static RuleConfiguration rule(final String name, final String input, final Rule rule) {
+        return new RuleConfiguration() {
+            @Override
+            public String getLogString() {
+                return name;
+            }
+
+            @Override
+            public String getInput() {
+                return input;
+            }
+
+            @Override
+            public Optional<ValidationErrorResponse> validate(final Object value,
+                final ValidationContext validationContext) {
+                return rule.isValid(value, validationContext) ? Optional.empty() : Optional.of(new ErrorResponse());
+            }
+        };
+    }
+
+    @FunctionalInterface
+    private interface Rule {
+
+        boolean isValid(Object value, ValidationContext validationContext);
+    }
+
+    /**
+     * Error of every failed rule, with any code but {@link ValidationErrorCode#UnexpectedError}.
+     */
+    private static final class ErrorResponse extends ValidationErrorResponse {
+
+        private static final ValidationErrorCode CODE = Arrays.stream(ValidationErrorCode.values())
+            .filter(code -> code != ValidationErrorCode.UnexpectedError)
+            .findFirst()
+            .orElseThrow(IllegalStateException::new);
+
+        private final ValidationError error = new ValidationError() {
+            @Override
+            public ValidationErrorCode getCode() {
+                return CODE;
+            }
+        };
+
+        @Override
+        public ValidationError getError() {
+            return error;
+        }
+    }
+
+    @Data
+    public static class Order {
+
+        private String id;
+        private List<Item> items;
+        private Summary summary;
+    }
+
+    @Data
+    public static class Item {
+
+        private String sku;
+    }
+
+    @Data
+    public static class Summary {
+
+        private Integer count;
+    }
+}
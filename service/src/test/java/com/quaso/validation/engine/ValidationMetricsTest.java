@@ -0,0 +1,36 @@
+package com.quaso.validation.engine;
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.Mockito.mock;
+
+import com.quaso.validation.engine.config.ClassConfigurationCache;
+import com.quaso.validation.engine.config.ValidationConfigService;
+import com.quaso.validation.engine.config.properties.ValidationEngineProperties;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.Arrays;
+import java.util.Optional;
+import org.junit.Test;
+
+public class ValidationMetricsTest {
+
+    @Test
+    public void errorsWithoutCodeAreCountedWithNoneTag() {
+        final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+        final ValidationEngineProperties validationEngineProperties = new ValidationEngineProperties();
+        final ValidationMetrics validationMetrics = new ValidationMetrics(Optional.of(meterRegistry),
+            validationEngineProperties,
+            new ClassConfigurationCache(mock(ValidationConfigService.class), validationEngineProperties));
+        final ValidationErrorResponse withoutCode = new ValidationErrorResponse() {
+            @Override
+            public ValidationError getError() {
+                return new ValidationError();
+            }
+        };
+
+        validationMetrics.recordRequest(Object.class, "ALLIANCE", "PARTNER", 1L,
+            Arrays.asList(withoutCode, new ValidationErrorResponse()), false);
+
+        assertEquals(2.0, meterRegistry.get("validation.errors").tag("code", "none").counter().count(), 0.0);
+    }
+}
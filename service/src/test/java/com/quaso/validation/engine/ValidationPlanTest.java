@@ -0,0 +1,54 @@
+package com.quaso.validation.engine;
+
+import static org.junit.Assert.assertEquals;
+
+import com.quaso.validation.engine.ValidationPlan.FieldStep;
+import com.quaso.validation.engine.config.model.RuleConfiguration;
+import com.quaso.validation.exception.UnknownFieldException;
+import com.quaso.validation.utils.ReflectionUtils;
+import org.junit.Test;
+
+public class ValidationPlanTest {
+
+    @Test
+    public void fieldStepReadsDeclaredTypeThroughAccessor() {
+        assertEquals("base", fieldStep(Base.class, "code").getValue(new Base()));
+    }
+
+    @Test
+    public void fieldStepLooksUpFieldOfSubclassByName() {
+        // the subclass hides the field, rules of the declared type see the field of the runtime class
+        assertEquals("hiding", fieldStep(Base.class, "code").getValue(new Hiding()));
+        assertEquals("base", fieldStep(Base.class, "code").getValue(new Inheriting()));
+    }
+
+    @Test
+    public void fieldStepLooksUpFieldMissingInDeclaredTypeByName() {
+        assertEquals("extra", fieldStep(Base.class, "extra").getValue(new Inheriting()));
+    }
+
+    @Test(expected = UnknownFieldException.class)
+    public void fieldStepFailsForUnknownField() {
+        fieldStep(Base.class, "extra").getValue(new Base());
+    }
+
+    private static FieldStep fieldStep(final Class<?> type, final String name) {
+        return new FieldStep(null, name, type, ReflectionUtils.findAccessor(type, name), new RuleConfiguration[0],
+            new RuleStats[0], null, -1);
+    }
+
+    private static class Base {
+
+        private final String code = "base";
+    }
+
+    private static class Hiding extends Base {
+
+        private final String code = "hiding";
+    }
+
+    private static class Inheriting extends Base {
+
+        private final String extra = "extra";
+    }
+}
@@ -0,0 +1,75 @@
+package com.quaso.validation.engine.config;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.quaso.validation.engine.config.model.ClassConfiguration;
+import com.quaso.validation.engine.config.properties.ValidationEngineProperties;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.http.HttpMethod;
+
+public class ClassConfigurationCacheTest {
+
+    private final List<ClassConfiguration> classConfigurationList = Collections.singletonList(
+        new ClassConfiguration());
+    private final ValidationConfigService validationConfigService = mock(ValidationConfigService.class);
+    private final ClassConfigurationCache cache = new ClassConfigurationCache(validationConfigService,
+        new ValidationEngineProperties());
+
+    @Before
+    public void stubConfigService() {
+        when(validationConfigService.findClassConfigurationList(anyString(), any(), anyString(), anyString()))
+            .thenReturn(classConfigurationList);
+    }
+
+    @Test
+    public void synchronousLookupDoesNotWaitForQueuedLoad() {
+        // executor which never runs the queued load
+        final List<Runnable> queue = new ArrayList<>();
+        final CompletableFuture<Optional<List<ClassConfiguration>>> async = cache.findClassConfigurationListAsync(0L,
+            "Order", HttpMethod.POST, "ALLIANCE", "PARTNER", queue::add);
+
+        assertEquals(Optional.of(classConfigurationList),
+            cache.findClassConfigurationList(0L, "Order", HttpMethod.POST, "ALLIANCE", "PARTNER"));
+        assertFalse(async.isDone());
+
+        queue.forEach(Runnable::run);
+        assertEquals(Optional.of(classConfigurationList), async.join());
+        // the queued load finds the entry cached meanwhile
+        verify(validationConfigService, times(1))
+            .findClassConfigurationList(anyString(), any(), anyString(), anyString());
+    }
+
+    @Test
+    public void rejectedLoadFailsOnlyAsynchronousLookup() throws InterruptedException {
+        final CompletableFuture<Optional<List<ClassConfiguration>>> async = cache.findClassConfigurationListAsync(0L,
+            "Order", HttpMethod.POST, "ALLIANCE", "PARTNER", command -> {
+                throw new RejectedExecutionException();
+            });
+
+        assertEquals(Optional.of(classConfigurationList),
+            cache.findClassConfigurationList(0L, "Order", HttpMethod.POST, "ALLIANCE", "PARTNER"));
+        try {
+            async.get();
+        } catch (final ExecutionException ex) {
+            assertTrue(ex.getCause() instanceof RejectedExecutionException);
+            return;
+        }
+        throw new AssertionError("Rejected load completed normally");
+    }
+}